@@ -0,0 +1,102 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.repository.JdbcContactRepository;
+import com.example.AddressBook.repository.search.NGramContactIndex;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares the former phones x emails join with STRING_AGG against the per-table ARRAY subqueries
+ * used by {@link JdbcContactRepository}. Needs a PostgreSQL database with the address book schema,
+ * given by the BENCHMARK_DB_URL, BENCHMARK_DB_USER and BENCHMARK_DB_PASSWORD environment variables.
+ * Seeded contacts use PINs from {@value #FIRST_PIN} and are removed after the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactReadQueryBenchmark {
+
+  private static final int FIRST_PIN = 900_000_000;
+
+  private static final String STRING_AGG_JOIN =
+      "SELECT c.pin, c.name, c.surname, c.gender, "
+          + "STRING_AGG(DISTINCT p.phone, ', ') AS phones, "
+          + "STRING_AGG(DISTINCT e.email, ', ') AS emails "
+          + "FROM contacts c "
+          + "LEFT JOIN phones p ON c.pin = p.pin "
+          + "LEFT JOIN emails e ON c.pin = e.pin "
+          + "WHERE c.pin > ? "
+          + "GROUP BY c.pin, c.name, c.surname, c.gender "
+          + "ORDER BY c.pin LIMIT ?";
+
+  @Param({"1000"})
+  private int contacts;
+
+  @Param({"1", "10", "30"})
+  private int valuesPerContact;
+
+  private JdbcTemplate jdbcTemplate;
+  private JdbcContactRepository repository;
+
+  @Setup(Level.Trial)
+  public void seed() {
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                System.getenv("BENCHMARK_DB_URL"),
+                System.getenv("BENCHMARK_DB_USER"),
+                System.getenv("BENCHMARK_DB_PASSWORD")));
+    repository = new JdbcContactRepository();
+    ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+    ReflectionTestUtils.setField(repository, "searchIndex", new NGramContactIndex(false));
+
+    removeSeededContacts();
+    jdbcTemplate.update(
+        "INSERT INTO contacts (pin, name, surname) "
+            + "SELECT pin, 'Bench' || pin, 'Mark' || pin FROM generate_series(?, ?) AS pin",
+        FIRST_PIN,
+        FIRST_PIN + contacts - 1);
+    jdbcTemplate.update(
+        "INSERT INTO phones (phone, pin) "
+            + "SELECT '099' || lpad(i::text, 7, '0'), pin "
+            + "FROM generate_series(?, ?) AS pin, generate_series(1, ?) AS i",
+        FIRST_PIN,
+        FIRST_PIN + contacts - 1,
+        valuesPerContact);
+    jdbcTemplate.update(
+        "INSERT INTO emails (email, pin) "
+            + "SELECT 'bench' || pin || '.' || i || '@example.com', pin "
+            + "FROM generate_series(?, ?) AS pin, generate_series(1, ?) AS i",
+        FIRST_PIN,
+        FIRST_PIN + contacts - 1,
+        valuesPerContact);
+    jdbcTemplate.execute("ANALYZE contacts, phones, emails");
+  }
+
+  @TearDown(Level.Trial)
+  public void removeSeededContacts() {
+    jdbcTemplate.update("DELETE FROM contacts WHERE pin >= ?", FIRST_PIN);
+  }
+
+  @Benchmark
+  public List<String> stringAggJoin() {
+    return jdbcTemplate.query(
+        STRING_AGG_JOIN,
+        (rs, rowNum) -> rs.getString("phones") + rs.getString("emails"),
+        FIRST_PIN - 1,
+        contacts);
+  }
+
+  @Benchmark
+  public List<Contact> arraySubqueries() {
+    return repository.getContactsPage(null, null, null, FIRST_PIN - 1, contacts);
+  }
+}
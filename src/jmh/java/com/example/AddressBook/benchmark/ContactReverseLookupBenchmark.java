@@ -0,0 +1,106 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.repository.JdbcContactRepository;
+import com.example.AddressBook.repository.PhoneKeyBackfill;
+import com.example.AddressBook.repository.search.NGramContactIndex;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Reverse lookup of a random seeded contact by phone number and by email address, with and without
+ * the phone key and email indexes. Without them every lookup scans the phones or emails table, so
+ * the time grows with the address book; with them it stays flat. Needs a PostgreSQL database with
+ * the address book schema, given by the BENCHMARK_DB_URL, BENCHMARK_DB_USER and
+ * BENCHMARK_DB_PASSWORD environment variables. The indexes are dropped for the unindexed runs and
+ * recreated afterwards. Seeded contacts use PINs from {@value #FIRST_PIN} and are removed after the
+ * run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactReverseLookupBenchmark {
+
+  private static final int FIRST_PIN = 900_000_000;
+  private static final int VALUES_PER_CONTACT = 2;
+
+  @Param({"10000", "100000", "1000000"})
+  private int contacts;
+
+  @Param({"true", "false"})
+  private boolean indexed;
+
+  private JdbcTemplate jdbcTemplate;
+  private JdbcContactRepository repository;
+
+  @Setup(Level.Trial)
+  public void seed() {
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                System.getenv("BENCHMARK_DB_URL"),
+                System.getenv("BENCHMARK_DB_USER"),
+                System.getenv("BENCHMARK_DB_PASSWORD")));
+    repository = new JdbcContactRepository();
+    ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+    ReflectionTestUtils.setField(repository, "searchIndex", new NGramContactIndex(false));
+
+    removeSeededContacts();
+    jdbcTemplate.update(
+        "INSERT INTO contacts (pin, name, surname) "
+            + "SELECT pin, 'Bench' || pin, 'Mark' || pin FROM generate_series(?, ?) AS pin",
+        FIRST_PIN,
+        FIRST_PIN + contacts - 1);
+    jdbcTemplate.update(
+        "INSERT INTO phones (phone, pin) "
+            + "SELECT '09' || i || lpad((pin - ?)::text, 7, '0'), pin "
+            + "FROM generate_series(?, ?) AS pin, generate_series(1, ?) AS i",
+        FIRST_PIN,
+        FIRST_PIN,
+        FIRST_PIN + contacts - 1,
+        VALUES_PER_CONTACT);
+    jdbcTemplate.update(
+        "INSERT INTO emails (email, pin) "
+            + "SELECT 'Bench' || pin || '.' || i || '@example.com', pin "
+            + "FROM generate_series(?, ?) AS pin, generate_series(1, ?) AS i",
+        FIRST_PIN,
+        FIRST_PIN + contacts - 1,
+        VALUES_PER_CONTACT);
+    new PhoneKeyBackfill(jdbcTemplate, true, 10000).backfill();
+    if (!indexed) {
+      jdbcTemplate.execute("DROP INDEX IF EXISTS phones_phone_key_idx");
+      jdbcTemplate.execute("DROP INDEX IF EXISTS emails_email_idx");
+    }
+    jdbcTemplate.execute("ANALYZE contacts, phones, emails");
+  }
+
+  @TearDown(Level.Trial)
+  public void removeSeededContacts() {
+    jdbcTemplate.update("DELETE FROM contacts WHERE pin >= ?", FIRST_PIN);
+    jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS phones_phone_key_idx ON phones (phone_key)");
+    jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS emails_email_idx ON emails (lower(email))");
+  }
+
+  // Looked up in another format than stored, which only the phone key matches.
+  @Benchmark
+  public List<Contact> findByPhone() {
+    int offset = ThreadLocalRandom.current().nextInt(contacts);
+    return repository.getContactsByPhone(
+        String.format("(091) %03d-%04d", offset / 10000, offset % 10000));
+  }
+
+  // Looked up in lower case to exercise the case-insensitive match.
+  @Benchmark
+  public List<Contact> findByEmail() {
+    int pin = FIRST_PIN + ThreadLocalRandom.current().nextInt(contacts);
+    return repository.getContactsByEmail("bench" + pin + ".1@example.com");
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.repository.mappers.ContactRowMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactRowMapperBenchmark {
+
+  private final ContactRowMapper rowMapper = new ContactRowMapper();
+  private ResultSet resultSet;
+
+  @Setup
+  public void setUp() {
+    resultSet =
+        new FakeResultSet(
+            2029,
+            "Leonard",
+            "Titlić",
+            "MALE",
+            17L,
+            new String[] {"0997899621", "+385 1 4567 890"},
+            new String[] {"leonard.titlic@gmail.com", "leo@titlic.hr"});
+  }
+
+  @Benchmark
+  public Contact mapRow() throws SQLException {
+    return rowMapper.mapRow(resultSet, 1);
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.Gender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Jackson serialization of a findContacts response body in each negotiable format, optionally
+ * gzip-compressed as GzipCompressionFilter does. The {@code payloadBytes} counter is the size of
+ * the body on the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactSerializationBenchmark {
+
+  @Param({"1000", "10000"})
+  private int contacts;
+
+  @Param({"JSON", "SMILE", "CBOR"})
+  private String format;
+
+  @Param({"false", "true"})
+  private boolean gzip;
+
+  private ObjectMapper objectMapper;
+  private List<Contact> response;
+
+  @Setup
+  public void setUp() {
+    objectMapper =
+        switch (format) {
+          case "SMILE" -> new SmileMapper();
+          case "CBOR" -> new CBORMapper();
+          default -> new ObjectMapper();
+        };
+    response = contactList(contacts);
+  }
+
+  @Benchmark
+  public byte[] serializeContactList(PayloadSize payloadSize) throws IOException {
+    byte[] body = objectMapper.writeValueAsBytes(response);
+    if (gzip) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+      try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8192)) {
+        out.write(body);
+      }
+      body = compressed.toByteArray();
+    }
+    payloadSize.payloadBytes = body.length;
+    return body;
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class PayloadSize {
+    public long payloadBytes;
+  }
+
+  static List<Contact> contactList(int size) {
+    Gender[] genders = Gender.values();
+    List<Contact> contactList = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Contact contact = new Contact();
+      contact.setPin(1000 + i);
+      contact.setName("Name" + i);
+      contact.setSurname("Surname" + i);
+      contact.setGender(genders[i % genders.length]);
+      ContactPhones phones = new ContactPhones();
+      phones.add("099" + String.format("%07d", i));
+      phones.add("01" + String.format("%07d", i));
+      contact.setPhones(phones);
+      ContactEmails emails = new ContactEmails();
+      emails.add("name" + i + ".surname@gmail.com");
+      contact.setEmails(emails);
+      contactList.add(contact);
+    }
+    return contactList;
+  }
+}
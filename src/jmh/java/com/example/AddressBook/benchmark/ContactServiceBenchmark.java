@@ -0,0 +1,49 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.service.ContactService;
+import com.example.AddressBook.validation.ContactValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactServiceBenchmark {
+
+  private ContactService contactService;
+  private Contact updateRequest;
+
+  @Setup
+  public void setUp() {
+    contactService =
+        new ContactService(null, null, null, new ContactValidator(), new ObjectMapper(), 500);
+
+    updateRequest = new Contact();
+    updateRequest.setPin(2029);
+    updateRequest.setName("Leonard");
+    updateRequest.setGender(Gender.MALE);
+    ContactEmails emails = new ContactEmails();
+    emails.add("leonard.titlic@gmail.com");
+    updateRequest.setEmails(emails);
+  }
+
+  @Benchmark
+  public Contact updateContactWithNewValues() {
+    Contact currentContact = new Contact();
+    currentContact.setPin(2029);
+    currentContact.setName("Leo");
+    currentContact.setSurname("Titlić");
+    ContactPhones phones = new ContactPhones();
+    phones.add("0997899621");
+    currentContact.setPhones(phones);
+    return contactService.updateContactWithNewValues(currentContact, updateRequest);
+  }
+}
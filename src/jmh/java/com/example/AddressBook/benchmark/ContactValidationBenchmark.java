@@ -0,0 +1,30 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.service.ContactService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactValidationBenchmark {
+
+  @Param({"0997899621", "+385 (1) 456-7890", "not a phone"})
+  private String phoneNumber;
+
+  @Param({"leonard.titlic@gmail.com", "not an email"})
+  private String email;
+
+  @Benchmark
+  public boolean isValidPhoneNumber() {
+    return ContactService.isValidPhoneNumber(phoneNumber);
+  }
+
+  @Benchmark
+  public boolean isValidEmail() {
+    return ContactService.isValidEmail(email);
+  }
+}
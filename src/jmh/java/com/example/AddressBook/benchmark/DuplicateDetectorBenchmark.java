@@ -0,0 +1,106 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.duplicates.DuplicateDetector;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.DuplicatePair;
+import com.example.AddressBook.model.Gender;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A full duplicate scan of a generated address book in which every twentieth contact repeats the
+ * one before it with a misspelled surname and the phone number written differently. {@code
+ * parallelism} 0 uses every processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class DuplicateDetectorBenchmark {
+
+  private static final String[] NAMES = {
+    "Ana", "Ivan", "Marko", "Ivana", "Petra", "Luka", "Maja", "Josip", "Sara", "Tomislav",
+    "Nikola", "Lucija", "Filip", "Marija", "Karlo", "Ema", "David", "Lana", "Matej", "Nina"
+  };
+  private static final String[] SYLLABLES = {
+    "ho", "var", "ko", "bar", "ma", "ric", "ju", "ro", "pe", "tro", "ba", "dic", "ni", "ko", "la",
+    "vi", "se", "mun", "ze", "lin"
+  };
+
+  @Param({"100000", "1000000"})
+  private int contacts;
+
+  @Param({"1", "0"})
+  private int parallelism;
+
+  private List<Contact> addressBook;
+  private ForkJoinPool pool;
+  private DuplicateDetector detector;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    addressBook = addressBook(contacts);
+    pool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpScan() {
+    detector = new DuplicateDetector(0.7, 1000, 50);
+    addressBook.forEach(detector::add);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Benchmark
+  public List<DuplicatePair> detect() {
+    return detector.detect(pool);
+  }
+
+  private static List<Contact> addressBook(int size) {
+    Random random = new Random(42);
+    Gender[] genders = Gender.values();
+    List<Contact> addressBook = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Contact contact = new Contact();
+      contact.setPin(1000 + i);
+      ContactPhones phones = new ContactPhones();
+      ContactEmails emails = new ContactEmails();
+      if (i % 20 == 19) {
+        Contact original = addressBook.get(i - 1);
+        String surname = original.getSurname();
+        contact.setName(original.getName());
+        contact.setSurname(surname + surname.charAt(surname.length() - 1));
+        contact.setGender(original.getGender());
+        phones.add(original.getPhones().getFirst().replaceAll("[^0-9]", ""));
+      } else {
+        StringBuilder surname = new StringBuilder();
+        for (int s = 0; s < 3; s++) {
+          surname.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        surname.setCharAt(0, Character.toUpperCase(surname.charAt(0)));
+        contact.setName(NAMES[random.nextInt(NAMES.length)]);
+        contact.setSurname(surname.toString());
+        contact.setGender(genders[random.nextInt(genders.length)]);
+        phones.add(String.format("(091) %03d-%04d", i / 10000, i % 10000));
+        emails.add("contact" + i + "@example.com");
+      }
+      contact.setPhones(phones);
+      contact.setEmails(emails);
+      addressBook.add(contact);
+    }
+    return addressBook;
+  }
+}
@@ -0,0 +1,142 @@
+package com.example.AddressBook.benchmark;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.Map;
+
+/**
+ * ResultSet positioned on a single contact row, answering the getters ContactRowMapper uses. The
+ * row is held in plain fields and the arrays are created once, so a call allocates nothing.
+ */
+final class FakeResultSet extends UnsupportedResultSet {
+
+  private final int pin;
+  private final String name;
+  private final String surname;
+  private final String gender;
+  private final long version;
+  private final Array phones;
+  private final Array emails;
+
+  FakeResultSet(
+      int pin,
+      String name,
+      String surname,
+      String gender,
+      long version,
+      String[] phones,
+      String[] emails) {
+    this.pin = pin;
+    this.name = name;
+    this.surname = surname;
+    this.gender = gender;
+    this.version = version;
+    this.phones = new StringArray(phones);
+    this.emails = new StringArray(emails);
+  }
+
+  @Override
+  public int getInt(String columnLabel) throws SQLException {
+    if (columnLabel.equals("pin")) {
+      return pin;
+    }
+    throw unknownColumn(columnLabel);
+  }
+
+  @Override
+  public long getLong(String columnLabel) throws SQLException {
+    if (columnLabel.equals("version")) {
+      return version;
+    }
+    throw unknownColumn(columnLabel);
+  }
+
+  @Override
+  public String getString(String columnLabel) throws SQLException {
+    return switch (columnLabel) {
+      case "name" -> name;
+      case "surname" -> surname;
+      case "gender" -> gender;
+      default -> throw unknownColumn(columnLabel);
+    };
+  }
+
+  @Override
+  public Array getArray(String columnLabel) throws SQLException {
+    return switch (columnLabel) {
+      case "phones" -> phones;
+      case "emails" -> emails;
+      default -> throw unknownColumn(columnLabel);
+    };
+  }
+
+  @Override
+  public boolean wasNull() {
+    return false;
+  }
+
+  private static SQLException unknownColumn(String columnLabel) {
+    return new SQLException("No column " + columnLabel);
+  }
+
+  // Hands out the same array every time; ContactRowMapper only copies from it.
+  private record StringArray(String[] values) implements Array {
+
+    @Override
+    public String getBaseTypeName() {
+      return "varchar";
+    }
+
+    @Override
+    public int getBaseType() {
+      return Types.VARCHAR;
+    }
+
+    @Override
+    public Object getArray() {
+      return values;
+    }
+
+    @Override
+    public Object getArray(Map<String, Class<?>> map) {
+      return values;
+    }
+
+    @Override
+    public Object getArray(long index, int count) throws SQLException {
+      throw new SQLFeatureNotSupportedException("getArray");
+    }
+
+    @Override
+    public Object getArray(long index, int count, Map<String, Class<?>> map) throws SQLException {
+      throw new SQLFeatureNotSupportedException("getArray");
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+      throw new SQLFeatureNotSupportedException("getResultSet");
+    }
+
+    @Override
+    public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException {
+      throw new SQLFeatureNotSupportedException("getResultSet");
+    }
+
+    @Override
+    public ResultSet getResultSet(long index, int count) throws SQLException {
+      throw new SQLFeatureNotSupportedException("getResultSet");
+    }
+
+    @Override
+    public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map)
+        throws SQLException {
+      throw new SQLFeatureNotSupportedException("getResultSet");
+    }
+
+    @Override
+    public void free() {}
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.concurrency.ConcurrencyLimitingDataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * A burst of {@code requests} simultaneous requests on Tomcat's default 200 platform threads
+ * against one virtual thread per request. Each request spends {@code ioMillis} blocked outside the
+ * database (reading the body, writing the response) and runs one {@code queryMillis} query through
+ * a {@link ConcurrencyLimitingDataSource} with as many permits as the connection pool. Every
+ * request of a burst starts at once, so the burst time is also the latency of its slowest request;
+ * the sample-time percentiles show the tail.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+  private static final int TOMCAT_MAX_THREADS = 200;
+  private static final int POOL_SIZE = 10;
+
+  @Param({"PLATFORM", "VIRTUAL"})
+  private String threads;
+
+  @Param({"1000", "5000"})
+  private int requests;
+
+  @Param({"50"})
+  private int ioMillis;
+
+  @Param({"1"})
+  private int queryMillis;
+
+  private ExecutorService executor;
+  private DataSource dataSource;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    executor =
+        threads.equals("VIRTUAL")
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    dataSource =
+        new ConcurrencyLimitingDataSource(
+            new SlowDataSource(queryMillis), POOL_SIZE, Duration.ofMinutes(1));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public int burst() throws Exception {
+    List<Future<Boolean>> responses = new ArrayList<>(requests);
+    for (int i = 0; i < requests; i++) {
+      responses.add(executor.submit(this::handleRequest));
+    }
+    int completed = 0;
+    for (Future<Boolean> response : responses) {
+      if (response.get()) {
+        completed++;
+      }
+    }
+    return completed;
+  }
+
+  private boolean handleRequest() throws Exception {
+    Thread.sleep(ioMillis);
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+      return statement.execute();
+    }
+  }
+
+  private static class SlowDataSource extends AbstractDataSource {
+    private final int queryMillis;
+
+    SlowDataSource(int queryMillis) {
+      this.queryMillis = queryMillis;
+    }
+
+    @Override
+    public Connection getConnection() {
+      PreparedStatement statement =
+          (PreparedStatement)
+              Proxy.newProxyInstance(
+                  getClass().getClassLoader(),
+                  new Class<?>[] {PreparedStatement.class},
+                  (proxy, method, args) -> {
+                    if (method.getName().equals("execute")) {
+                      Thread.sleep(queryMillis);
+                      return true;
+                    }
+                    return null;
+                  });
+      return (Connection)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Connection.class},
+              (proxy, method, args) ->
+                  method.getName().equals("prepareStatement") ? statement : null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return getConnection();
+    }
+  }
+}
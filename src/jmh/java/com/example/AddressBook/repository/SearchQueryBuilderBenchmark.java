@@ -0,0 +1,25 @@
+package com.example.AddressBook.repository;
+
+import com.example.AddressBook.model.Gender;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Lives in the repository package to reach the package-private query builder. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchQueryBuilderBenchmark {
+
+  @Benchmark
+  public String nameOnly() {
+    return JdbcContactRepository.formSqlQueryForMultipleParam("Ivan", null, null);
+  }
+
+  @Benchmark
+  public String allParameters() {
+    return JdbcContactRepository.formSqlQueryForMultipleParam("Ivan", "Horvat", Gender.MALE);
+  }
+}
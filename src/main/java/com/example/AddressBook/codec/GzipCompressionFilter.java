@@ -0,0 +1,299 @@
+package com.example.AddressBook.codec;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Gzip-compresses response bodies of the configured media types once they reach {@code
+ * addressbook.compression.min-response-size} bytes. Tomcat's {@code server.compression} skips every
+ * response with a strong ETag, which is every findContact and findContacts response; here a
+ * compressed response keeps its ETag but weakened, as nginx does, so If-None-Match still matches.
+ * Streamed (async) responses, and bodies written through a {@link WriteListener}, are passed
+ * through unchanged.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class GzipCompressionFilter extends OncePerRequestFilter {
+
+  private final boolean enabled;
+  private final List<MediaType> mediaTypes;
+  private final int minResponseSize;
+
+  public GzipCompressionFilter(
+      @Value("${addressbook.compression.enabled:true}") boolean enabled,
+      @Value(
+              "${addressbook.compression.mime-types:application/json,application/cbor,application/x-jackson-smile}")
+          List<String> mimeTypes,
+      @Value("${addressbook.compression.min-response-size:2048}") int minResponseSize) {
+    this.enabled = enabled;
+    this.mediaTypes = mimeTypes.stream().map(MediaType::parseMediaType).toList();
+    this.minResponseSize = minResponseSize;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    GzipResponse gzipResponse = new GzipResponse(request, response);
+    filterChain.doFilter(request, gzipResponse);
+    if (request.isAsyncStarted()) {
+      // The body is written after this filter has returned, so it could not finish the stream.
+      gzipResponse.passThrough = true;
+    } else {
+      gzipResponse.finish();
+    }
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim().toLowerCase(Locale.ROOT);
+      if (!name.equals("gzip") && !name.equals("*")) {
+        continue;
+      }
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim();
+        if (parameter.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2));
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (quality > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isCompressible(String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    MediaType mediaType = MediaType.parseMediaType(contentType);
+    return mediaTypes.stream().anyMatch(type -> type.includes(mediaType));
+  }
+
+  /**
+   * Holds the Content-Length and the first bytes of the body back until it is known whether the
+   * body is compressed, so the headers still describe what is actually sent.
+   */
+  private class GzipResponse extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+    private boolean passThrough;
+    private long contentLength = -1;
+    private CompressingOutputStream outputStream;
+
+    GzipResponse(HttpServletRequest request, HttpServletResponse response) {
+      super(response);
+      this.request = request;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        int status = response.getStatus();
+        if (passThrough
+            || request.isAsyncStarted()
+            || status < 200
+            || status >= 300
+            || status == HttpServletResponse.SC_PARTIAL_CONTENT
+            || response.containsHeader(HttpHeaders.CONTENT_ENCODING)
+            || !isCompressible(response.getContentType())) {
+          applyContentLength();
+          return super.getOutputStream();
+        }
+        outputStream = new CompressingOutputStream(response, this::applyContentLength);
+      }
+      return outputStream;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+      setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+      if (passThrough) {
+        super.setContentLengthLong(len);
+      } else if (outputStream == null) {
+        contentLength = len;
+      }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLengthLong(Long.parseLong(value));
+      } else {
+        super.setHeader(name, value);
+      }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLengthLong(Long.parseLong(value));
+      } else {
+        super.addHeader(name, value);
+      }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (outputStream == null || outputStream.target != null || outputStream.passThrough != null) {
+        super.flushBuffer();
+      }
+    }
+
+    void finish() throws IOException {
+      if (outputStream != null) {
+        outputStream.finish();
+      } else if (!isCommitted()) {
+        applyContentLength();
+      }
+    }
+
+    private void applyContentLength() {
+      if (contentLength >= 0) {
+        super.setContentLengthLong(contentLength);
+      }
+    }
+  }
+
+  private class CompressingOutputStream extends ServletOutputStream {
+
+    private final HttpServletResponse response;
+    private final Runnable restoreContentLength;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private OutputStream target;
+    // Set once a WriteListener takes over; every call is then forwarded uncompressed.
+    private ServletOutputStream passThrough;
+    private boolean finished;
+
+    CompressingOutputStream(HttpServletResponse response, Runnable restoreContentLength) {
+      this.response = response;
+      this.restoreContentLength = restoreContentLength;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (passThrough != null) {
+        passThrough.write(b, off, len);
+        return;
+      }
+      if (target == null) {
+        if (buffer.size() + len < minResponseSize) {
+          buffer.write(b, off, len);
+          return;
+        }
+        startCompression();
+      }
+      target.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (passThrough != null) {
+        passThrough.flush();
+      } else if (target != null) {
+        target.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (passThrough != null) {
+        passThrough.close();
+      } else {
+        finish();
+      }
+    }
+
+    @Override
+    public boolean isReady() {
+      return passThrough == null || passThrough.isReady();
+    }
+
+    // Non-blocking writes are not compressed: the listener gets the response stream itself.
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      if (target != null) {
+        throw new IllegalStateException("The response is already being compressed");
+      }
+      finished = true;
+      restoreContentLength.run();
+      try {
+        passThrough = response.getOutputStream();
+        buffer.writeTo(passThrough);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      buffer = null;
+      passThrough.setWriteListener(writeListener);
+    }
+
+    private void startCompression() throws IOException {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      String etag = response.getHeader(HttpHeaders.ETAG);
+      if (etag != null && !etag.startsWith("W/")) {
+        response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+      }
+      target = new GZIPOutputStream(response.getOutputStream(), 8192);
+      buffer.writeTo(target);
+      buffer = null;
+    }
+
+    void finish() throws IOException {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      if (target != null) {
+        ((GZIPOutputStream) target).finish();
+      } else {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(buffer.size());
+        buffer.writeTo(response.getOutputStream());
+      }
+    }
+  }
+}
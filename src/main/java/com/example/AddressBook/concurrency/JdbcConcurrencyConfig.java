@@ -0,0 +1,59 @@
+package com.example.AddressBook.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JdbcConcurrencyConfig {
+
+  @Bean
+  public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+      @Value("${addressbook.jdbc.max-concurrency:0}") int maxConcurrency,
+      @Value("${addressbook.jdbc.acquire-timeout:30s}") Duration acquireTimeout) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (maxConcurrency > 0
+            && bean instanceof DataSource dataSource
+            && !(bean instanceof ConcurrencyLimitingDataSource)) {
+          return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder jdbcPermitMetrics(DataSource dataSource) {
+    return registry -> {
+      ConcurrencyLimitingDataSource limited;
+      try {
+        if (!dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class)) {
+          return;
+        }
+        limited = dataSource.unwrap(ConcurrencyLimitingDataSource.class);
+      } catch (SQLException e) {
+        return;
+      }
+      Gauge.builder(
+              "addressbook.jdbc.permits.available",
+              limited,
+              ConcurrencyLimitingDataSource::getAvailablePermits)
+          .description("Free database permits")
+          .register(registry);
+      Gauge.builder(
+              "addressbook.jdbc.permits.waiting",
+              limited,
+              ConcurrencyLimitingDataSource::getWaitingThreads)
+          .description("Callers waiting for a database permit")
+          .register(registry);
+    };
+  }
+}
@@ -1,64 +1,302 @@
 package com.example.AddressBook.controller;
 
+import com.example.AddressBook.model.BulkDeleteReport;
 import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactBatch;
+import com.example.AddressBook.model.ContactCacheStats;
+import com.example.AddressBook.model.ContactChangePage;
 import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.ContactPage;
 import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.CsvImportReport;
+import com.example.AddressBook.model.DuplicateScanStatus;
+import com.example.AddressBook.model.ExportFormat;
+import com.example.AddressBook.model.ExportJobStatus;
 import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.ImportReport;
+import com.example.AddressBook.model.IngestionJobStatus;
+import com.example.AddressBook.model.NameSearchMode;
+import com.example.AddressBook.service.ContactChangeFeed;
+import com.example.AddressBook.service.ContactDuplicateService;
+import com.example.AddressBook.service.ContactExportService;
+import com.example.AddressBook.service.ContactIngestionQueue;
 import com.example.AddressBook.service.ContactService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-@CrossOrigin(origins = "http://localhost:8081")
+@CrossOrigin(
+    origins = "http://localhost:8081",
+    exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.LOCATION})
 @RestController
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ContactController {
 
   private static final Logger log = LoggerFactory.getLogger(ContactController.class);
 
   private final ContactService contactService;
+  private final ContactChangeFeed changeFeed;
+  private final ContactIngestionQueue ingestionQueue;
+  private final ContactExportService exportService;
+  private final ContactDuplicateService duplicateService;
 
-  public ContactController(ContactService contactService) {
+  public ContactController(
+      ContactService contactService,
+      ContactChangeFeed changeFeed,
+      ContactIngestionQueue ingestionQueue,
+      ContactExportService exportService,
+      ContactDuplicateService duplicateService) {
     this.contactService = contactService;
+    this.changeFeed = changeFeed;
+    this.ingestionQueue = ingestionQueue;
+    this.exportService = exportService;
+    this.duplicateService = duplicateService;
   }
 
   @Operation(
       summary = "Find contact by PIN (Personal Identification Number).",
-      description = "Retrieves a specific contact. The PIN is a required parameter.")
+      description =
+          "Retrieves a specific contact. The PIN is a required parameter. The ETag is the contact version, with the format appended for CBOR and Smile; with If-None-Match only the version is read and 304 is returned while it still matches.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Contact found."),
+        @ApiResponse(responseCode = "304", description = "Contact not modified."),
         @ApiResponse(responseCode = "404", description = "No records found for the given PIN.")
       })
   @GetMapping("/contacts/findContact/{pin}")
-  public ResponseEntity<Contact> getContactByPin(@PathVariable Integer pin) {
-    return contactService.getContactByPin(pin);
+  public ResponseEntity<Contact> getContactByPin(
+      @PathVariable Integer pin,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return contactService.getContactByPin(pin, accept, ifNoneMatch);
+  }
+
+  @Operation(
+      summary = "Find many contacts by PIN in one request.",
+      description =
+          "The body is a JSON array of up to 1000 PINs. Contacts are returned in the order of the request, duplicates once, and PINs without a contact are listed in missingPins. All PINs that are not cached are read with a single query.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Lookup finished."),
+        @ApiResponse(responseCode = "400", description = "More PINs than allowed.")
+      })
+  @PostMapping("/contacts/findContactsByPins")
+  public ResponseEntity<ContactBatch> getContactsByPins(@RequestBody List<Integer> pins) {
+    return contactService.getContactsByPins(pins);
   }
 
   @Operation(
       summary = "Retrieves all contacts, with the option to filter by name, surname, or gender.",
       description =
-          "If request parameters are provided, contacts will be filtered according to the given values. If no parameters are provided, all contacts will be returned. Multiple filters can be applied at once.")
+          "If request parameters are provided, contacts will be filtered according to the given values. If no parameters are provided, all contacts will be returned. Multiple filters can be applied at once. The ETag changes whenever a listed contact does; with If-None-Match a matching list is answered with 304 without reading phones and emails.")
   @ApiResponses(
       value = {
         @ApiResponse(
             responseCode = "200",
-            description = "List of contacts found for the given criteria.")
+            description = "List of contacts found for the given criteria."),
+        @ApiResponse(responseCode = "304", description = "List not modified.")
       })
   @GetMapping("/contacts/findContacts")
   public ResponseEntity<List<Contact>> searchContacts(
+      @RequestParam(value = "name", required = false) String nameRequest,
+      @RequestParam(value = "surname", required = false) String surnameRequest,
+      @RequestParam(value = "gender", required = false) Gender genderRequest,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+    return contactService.searchContacts(
+        nameRequest, surnameRequest, genderRequest, accept, ifNoneMatch);
+  }
+
+  @Operation(
+      summary = "Searches contacts by name or surname, ranked by relevance.",
+      description =
+          "Modes: SUBSTRING (default) matches anywhere in the name or surname, PREFIX matches the beginning, FUZZY tolerates typos using trigram similarity. Results are ordered by score (0 to 1) and limited to 'limit' entries (default 20, max 100).")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Matching contacts with their score.")
+      })
+  @GetMapping("/contacts/searchByName")
+  public ResponseEntity<List<ContactMatch>> searchContactsByName(
+      @RequestParam("query") String query,
+      @RequestParam(value = "mode", defaultValue = "SUBSTRING") NameSearchMode mode,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return contactService.searchContactsByName(query, mode, limit);
+  }
+
+  @Operation(
+      summary = "Finds the contacts that have the given phone number.",
+      description =
+          "Numbers are compared by their digits, so '+1 (555) 123-4567' matches a stored '15551234567'; a leading zero or country code is a digit like any other. Several contacts may share a number; they are returned ordered by PIN, and an empty list means no contact has it.")
+  @ApiResponses(
+      value = {@ApiResponse(responseCode = "200", description = "Contacts with the phone number.")})
+  @GetMapping("/contacts/findByPhone")
+  public ResponseEntity<List<Contact>> findContactsByPhone(@RequestParam("phone") String phone) {
+    return contactService.findContactsByPhone(phone);
+  }
+
+  @Operation(
+      summary = "Finds the contacts that have the given email address.",
+      description =
+          "The address is compared case-insensitively. Several contacts may share an address; they are returned ordered by PIN, and an empty list means no contact has it.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Contacts with the email address.")
+      })
+  @GetMapping("/contacts/findByEmail")
+  public ResponseEntity<List<Contact>> findContactsByEmail(@RequestParam("email") String email) {
+    return contactService.findContactsByEmail(email);
+  }
+
+  @Operation(
+      summary = "Retrieves one page of contacts ordered by PIN, with optional filters.",
+      description =
+          "Keyset pagination: pass the nextCursor of the previous page as 'after' to get the following page. The limit defaults to 100 and is capped at 1000. A null nextCursor means there are no more contacts.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Page of contacts found for the given criteria.")
+      })
+  @GetMapping("/contacts/findContactsPage")
+  public ResponseEntity<ContactPage> searchContactsPage(
+      @RequestParam(value = "name", required = false) String nameRequest,
+      @RequestParam(value = "surname", required = false) String surnameRequest,
+      @RequestParam(value = "gender", required = false) Gender genderRequest,
+      @RequestParam(value = "after", required = false) Integer afterPin,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+
+    return contactService.searchContactsPage(
+        nameRequest, surnameRequest, genderRequest, afterPin, limit);
+  }
+
+  @Operation(
+      summary = "Streams all contacts as newline-delimited JSON, with optional filters.",
+      description =
+          "Contacts are read with a database cursor and written one JSON object per line as they arrive, so memory use does not grow with the size of the address book.")
+  @ApiResponses(
+      value = {@ApiResponse(responseCode = "200", description = "Stream of matching contacts.")})
+  @GetMapping(value = "/contacts/streamContacts", produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> streamContacts(
       @RequestParam(value = "name", required = false) String nameRequest,
       @RequestParam(value = "surname", required = false) String surnameRequest,
       @RequestParam(value = "gender", required = false) Gender genderRequest) {
 
-    return contactService.searchContacts(nameRequest, surnameRequest, genderRequest);
+    return contactService.streamContacts(nameRequest, surnameRequest, genderRequest);
+  }
+
+  @Operation(
+      summary = "Changes to contacts after a sequence number, for incremental sync.",
+      description =
+          "Every created, updated or deleted contact is logged with an increasing sequence number in the writing transaction. Pass the nextSequence of the previous page as 'after' to continue; without 'after' the page is empty and nextSequence is the current end of the feed. Upserts carry the current contact. With 'wait' (seconds, max 60) an empty page is held back until a change arrives. The limit defaults to 100 and is capped at 1000.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Changes after the given sequence.")
+      })
+  @GetMapping("/contacts/changes")
+  public DeferredResult<ResponseEntity<ContactChangePage>> getChanges(
+      @RequestParam(value = "after", required = false) Long afterSequence,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "wait", required = false) Integer waitSeconds) {
+    return changeFeed.getChanges(afterSequence, limit, waitSeconds);
+  }
+
+  @Operation(
+      summary = "Starts an export of all contacts to a gzip-compressed file.",
+      description =
+          "The export runs in the background and reads contacts through a database cursor, so it does not load the address book into memory. The format is CSV (the columns of importCsv) or NDJSON. Poll the Location for progress; the finished file is downloaded from the downloadUrl of the job.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "202", description = "Export started."),
+        @ApiResponse(responseCode = "429", description = "Too many exports are already waiting.")
+      })
+  @PostMapping("/contacts/exports")
+  public ResponseEntity<ExportJobStatus> startExport(
+      @RequestParam(value = "format", defaultValue = "CSV") ExportFormat format) {
+    return exportService.startExport(format);
+  }
+
+  @Operation(
+      summary = "Progress of an export.",
+      description =
+          "Contacts exported so far against the number of contacts when the export started, and the download URL once the file is complete. Finished exports are kept for addressbook.export.retention.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Export status."),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired export.")
+      })
+  @GetMapping("/contacts/exports/{jobId}")
+  public ResponseEntity<ExportJobStatus> getExport(@PathVariable String jobId) {
+    return exportService.getExportStatus(jobId);
+  }
+
+  @Operation(
+      summary = "Downloads a finished export.",
+      description =
+          "Supports Range requests, so an interrupted download can be resumed with 'Range: bytes=<received>-'.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "The whole file."),
+        @ApiResponse(responseCode = "206", description = "The requested byte range."),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired export."),
+        @ApiResponse(responseCode = "409", description = "Export not finished.")
+      })
+  @GetMapping("/contacts/exports/{jobId}/file")
+  public ResponseEntity<Resource> getExportFile(@PathVariable String jobId) {
+    return exportService.getExportFile(jobId);
+  }
+
+  @Operation(
+      summary = "Starts a scan of all contacts for probable duplicates.",
+      description =
+          "Only contacts that share a phonetic surname key, a phone number or an email address are compared, in parallel. A pair scores 0.7 times the similarity of the names plus 0.3 when it shares a phone number or email address, halved when the genders differ; pairs from minScore (default addressbook.duplicates.min-score) are reported. Poll the Location for progress and the ranked report.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "202", description = "Scan started."),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A scan is already queued or running; it is returned instead.")
+      })
+  @PostMapping("/contacts/duplicates")
+  public ResponseEntity<DuplicateScanStatus> startDuplicateScan(
+      @RequestParam(value = "minScore", required = false) Double minScore) {
+    return duplicateService.startScan(minScore);
+  }
+
+  @Operation(
+      summary = "Progress and report of a duplicate scan.",
+      description =
+          "Once the scan has completed, duplicates holds one page of the pairs found, highest score first, from 'offset' (default 0) with up to 'limit' pairs (default 100, max 1000). Reports are kept for addressbook.duplicates.retention.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Scan status and report page."),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired scan.")
+      })
+  @GetMapping("/contacts/duplicates/{jobId}")
+  public ResponseEntity<DuplicateScanStatus> getDuplicateScan(
+      @PathVariable String jobId,
+      @RequestParam(value = "offset", required = false) Integer offset,
+      @RequestParam(value = "limit", required = false) Integer limit) {
+    return duplicateService.getScan(jobId, offset, limit);
   }
 
   @Operation(
@@ -77,6 +315,85 @@ public class ContactController {
     return contactService.createContactsUsingBody(contactsRequest);
   }
 
+  @Operation(
+      summary = "Queues contacts from the JSON body for asynchronous creation.",
+      description =
+          "The body is validated and queued, and the request is answered right away with a job whose Location can be polled. A background writer creates queued contacts of all jobs together in large batched transactions; invalid rows and rows the database rejects are reported per job. When the queue has no room for all valid contacts of the body, nothing is queued and 429 is returned.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "202", description = "Contacts queued."),
+        @ApiResponse(responseCode = "400", description = "More contacts than the queue holds."),
+        @ApiResponse(responseCode = "429", description = "Queue full, retry later.")
+      })
+  @PostMapping("/contacts/ingestContacts")
+  public ResponseEntity<IngestionJobStatus> ingestContacts(
+      @RequestBody List<Contact> contactsRequest) {
+    return ingestionQueue.submit(contactsRequest);
+  }
+
+  @Operation(
+      summary = "Progress of an ingestion job.",
+      description =
+          "Counts of created, failed and pending contacts and the failed rows with their index in the submitted body. Completed jobs are kept for addressbook.ingestion.job-retention.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Job status."),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired job.")
+      })
+  @GetMapping("/contacts/ingestContacts/{jobId}")
+  public ResponseEntity<IngestionJobStatus> getIngestionJob(@PathVariable String jobId) {
+    return ingestionQueue.getJobStatus(jobId);
+  }
+
+  @Operation(
+      summary = "Bulk imports contacts from the JSON body in batched transactions.",
+      description =
+          "Contacts are written in chunks (configurable with chunkSize, default addressbook.import.chunk-size) using JDBC batch statements, one transaction per chunk. A chunk that fails is retried row by row, and the response reports every row that could not be created instead of stopping at the first bad contact.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import finished, see the report for failed rows.")
+      })
+  @PostMapping("/contacts/importContacts")
+  public ResponseEntity<ImportReport> importContacts(
+      @RequestBody List<Contact> contactsRequest,
+      @RequestParam(value = "chunkSize", required = false) Integer chunkSize) {
+    return contactService.importContacts(contactsRequest, chunkSize);
+  }
+
+  @Operation(
+      summary = "Imports contacts from a CSV request body using PostgreSQL COPY.",
+      description =
+          "Columns: pin,name,surname,gender,phones,emails with a header row; multiple phones or emails are separated by ';'. The body is streamed straight into a staging table and merged with set-based SQL. Contacts whose PIN already exists are skipped.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Import finished."),
+        @ApiResponse(responseCode = "400", description = "Data integrity violation.")
+      })
+  @PostMapping(value = "/contacts/importCsv", consumes = "text/csv")
+  public ResponseEntity<CsvImportReport> importContactsFromCsv(HttpServletRequest request)
+      throws IOException {
+    return contactService.importContactsFromCsv(request.getInputStream());
+  }
+
+  @Operation(
+      summary = "Imports contacts from an uploaded CSV file using PostgreSQL COPY.",
+      description =
+          "Same format and behaviour as the text/csv variant, for multipart/form-data uploads with the file in the 'file' part.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Import finished."),
+        @ApiResponse(responseCode = "400", description = "Data integrity violation.")
+      })
+  @PostMapping(value = "/contacts/importCsv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<CsvImportReport> importContactsFromCsvFile(
+      @RequestPart("file") MultipartFile file) throws IOException {
+    try (InputStream csv = file.getInputStream()) {
+      return contactService.importContactsFromCsv(csv);
+    }
+  }
+
   @Operation(
       summary = "Creates a new contact using the data provided in the URL.",
       description =
@@ -111,31 +428,68 @@ public class ContactController {
     return contactService.deleteContactByPin(pin);
   }
 
+  @Operation(
+      summary = "Deletes all contacts whose PIN is in the JSON array body.",
+      description =
+          "PINs are deduplicated, sorted and deleted in chunks (configurable with chunkSize, default 1000) with one set-based statement per chunk; phones and emails are deleted with their contact. Each chunk commits on its own. The report counts deleted PINs, PINs that did not exist and null entries.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Delete finished, see the report."),
+        @ApiResponse(responseCode = "400", description = "Data integrity violation.")
+      })
+  @PostMapping(value = "/contacts/deleteContacts", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkDeleteReport> deleteContacts(
+      @RequestBody List<Integer> pins,
+      @RequestParam(value = "chunkSize", required = false) Integer chunkSize) {
+    return contactService.deleteContacts(pins, chunkSize);
+  }
+
+  @Operation(
+      summary = "Deletes the contacts listed in a text/plain body, one PIN per line.",
+      description =
+          "The body is streamed and every chunk is deleted as soon as it has been read, so lists of any length use constant memory. Lines that are not a PIN are counted as invalid and skipped.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Delete finished, see the report."),
+        @ApiResponse(responseCode = "400", description = "Data integrity violation.")
+      })
+  @PostMapping(value = "/contacts/deleteContacts", consumes = MediaType.TEXT_PLAIN_VALUE)
+  public ResponseEntity<BulkDeleteReport> deleteContactsFromStream(
+      HttpServletRequest request,
+      @RequestParam(value = "chunkSize", required = false) Integer chunkSize)
+      throws IOException {
+    return contactService.deleteContacts(request.getInputStream(), chunkSize);
+  }
+
   @Operation(
       summary =
           "Update a specific contact attribute(single or multiple) using the data provided in the JSON body.",
       description =
-          "Accessing a contact using the PIN (Personal Identification Number) and updating its data only for the attributes provided in the JSON body.")
+          "Accessing a contact using the PIN (Personal Identification Number) and updating its data only for the attributes provided in the JSON body. With If-Match the update is only applied if the contact still has the given ETag.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Update was successful."),
         @ApiResponse(responseCode = "400", description = "Data integrity violation."),
-        @ApiResponse(responseCode = "404", description = "No contact found for the given PIN.")
+        @ApiResponse(responseCode = "404", description = "No contact found for the given PIN."),
+        @ApiResponse(responseCode = "412", description = "Contact changed since the ETag.")
       })
   @PutMapping("/contacts/updateContactAttributes")
-  public ResponseEntity<String> updateContact(@RequestBody Contact updateRequest) {
-    return contactService.updateContact(updateRequest);
+  public ResponseEntity<String> updateContact(
+      @RequestBody Contact updateRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return contactService.updateContact(updateRequest, ifMatch);
   }
 
   @Operation(
       summary = "Updating contact by providing attribute name and a new value for it.",
       description =
-          "There is an option to provide oldValue for specific email or phone to update itd. If not provided new value will be added.")
+          "There is an option to provide oldValue for specific email or phone to update itd. If not provided new value will be added. With If-Match the update is only applied if the contact still has the given ETag.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Contact updated."),
         @ApiResponse(responseCode = "400", description = "Data integrity violation."),
-        @ApiResponse(responseCode = "404", description = "No records for the given criteria.")
+        @ApiResponse(responseCode = "404", description = "No records for the given criteria."),
+        @ApiResponse(responseCode = "412", description = "Contact changed since the ETag.")
       })
   @PutMapping("/contacts/updateContactAttribute")
   public ResponseEntity<String> updateContactAttribute(
@@ -144,8 +498,9 @@ public class ContactController {
           @Pattern(regexp = "name|surname|gender|email|phone", message = "Invalid attribute type")
           String attribute,
       @RequestParam(value = "oldValue", required = false) String oldValue,
-      @RequestParam("newValue") String newValue) {
-    return contactService.updateContactAttribute(pin, attribute, oldValue, newValue);
+      @RequestParam("newValue") String newValue,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return contactService.updateContactAttribute(pin, attribute, oldValue, newValue, ifMatch);
   }
 
   @Operation(
@@ -173,4 +528,14 @@ public class ContactController {
   public ResponseEntity<String> deletePhone(@RequestParam Integer pin, @RequestParam String phone) {
     return contactService.deletePhone(pin, phone);
   }
+
+  @Operation(
+      summary = "Statistics of the contact lookup cache.",
+      description =
+          "Current size and hit, miss and eviction counts of the in-process cache used for lookups by PIN.")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Cache statistics.")})
+  @GetMapping("/contacts/cacheStats")
+  public ResponseEntity<ContactCacheStats> getCacheStats() {
+    return contactService.getCacheStats();
+  }
 }
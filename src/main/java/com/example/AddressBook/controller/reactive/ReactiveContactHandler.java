@@ -0,0 +1,256 @@
+package com.example.AddressBook.controller.reactive;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactBatch;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.ContactPage;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.NameSearchMode;
+import com.example.AddressBook.repository.reactive.ReactiveContactRepository;
+import com.example.AddressBook.service.ContactService;
+import com.example.AddressBook.validation.ContactValidator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link com.example.AddressBook.controller.ContactController}. Contact
+ * lists are written as they arrive from the database, so a slow client slows the query down instead
+ * of buffering the result.
+ */
+public class ReactiveContactHandler {
+
+  static final String NOT_FOUND = "No records found for the given criteria.";
+  private static final ParameterizedTypeReference<List<Contact>> CONTACT_LIST =
+      new ParameterizedTypeReference<>() {};
+  private static final ParameterizedTypeReference<List<Integer>> PIN_LIST =
+      new ParameterizedTypeReference<>() {};
+
+  private final ReactiveContactRepository contactRepository;
+  private final ContactValidator contactValidator;
+
+  public ReactiveContactHandler(
+      ReactiveContactRepository contactRepository, ContactValidator contactValidator) {
+    this.contactRepository = contactRepository;
+    this.contactValidator = contactValidator;
+  }
+
+  public Mono<ServerResponse> getContactByPin(ServerRequest request) {
+    Integer pin = Integer.valueOf(request.pathVariable("pin"));
+    return contactRepository
+        .getContactByPin(pin)
+        .flatMap(contact -> ServerResponse.ok().bodyValue(contact))
+        .switchIfEmpty(ServerResponse.status(404).bodyValue(NOT_FOUND));
+  }
+
+  public Mono<ServerResponse> getContactsByPins(ServerRequest request) {
+    return request
+        .bodyToMono(PIN_LIST)
+        .flatMap(
+            pins -> {
+              if (pins.size() > ContactService.MAX_BATCH_LOOKUP_SIZE) {
+                return Mono.error(
+                    new IllegalArgumentException(
+                        "At most "
+                            + ContactService.MAX_BATCH_LOOKUP_SIZE
+                            + " PINs can be requested at once."));
+              }
+              Integer[] distinctPins =
+                  pins.stream().filter(Objects::nonNull).distinct().toArray(Integer[]::new);
+              return contactRepository
+                  .getContactsByPins(distinctPins)
+                  .collectMap(Contact::getPin)
+                  .map(found -> toBatch(distinctPins, found));
+            })
+        .flatMap(batch -> ServerResponse.ok().bodyValue(batch));
+  }
+
+  public Mono<ServerResponse> searchContacts(ServerRequest request) {
+    boolean ndjson = request.headers().accept().contains(MediaType.APPLICATION_NDJSON);
+    return ServerResponse.ok()
+        .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+        .body(searchFlux(request), Contact.class);
+  }
+
+  public Mono<ServerResponse> streamContacts(ServerRequest request) {
+    return ServerResponse.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(searchFlux(request), Contact.class);
+  }
+
+  public Mono<ServerResponse> searchContactsByName(ServerRequest request) {
+    String query = request.queryParam("query").orElse("");
+    if (query.isBlank()) {
+      return ServerResponse.ok().bodyValue(List.of());
+    }
+    NameSearchMode mode =
+        request.queryParam("mode").map(NameSearchMode::valueOf).orElse(NameSearchMode.SUBSTRING);
+    int limit =
+        intParam(request, "limit")
+            .map(value -> Math.clamp(value, 1, ContactService.MAX_NAME_SEARCH_LIMIT))
+            .orElse(ContactService.DEFAULT_NAME_SEARCH_LIMIT);
+    return ServerResponse.ok()
+        .body(
+            contactRepository.searchContactsByName(query.trim(), mode, limit), ContactMatch.class);
+  }
+
+  public Mono<ServerResponse> findContactsByPhone(ServerRequest request) {
+    String phone = request.queryParam("phone").orElse("");
+    if (phone.isBlank()) {
+      return ServerResponse.ok().bodyValue(List.of());
+    }
+    return ServerResponse.ok()
+        .body(contactRepository.getContactsByPhone(phone.trim()), Contact.class);
+  }
+
+  public Mono<ServerResponse> findContactsByEmail(ServerRequest request) {
+    String email = request.queryParam("email").orElse("");
+    if (email.isBlank()) {
+      return ServerResponse.ok().bodyValue(List.of());
+    }
+    return ServerResponse.ok()
+        .body(contactRepository.getContactsByEmail(email.trim()), Contact.class);
+  }
+
+  public Mono<ServerResponse> searchContactsPage(ServerRequest request) {
+    int pageSize =
+        intParam(request, "limit")
+            .map(value -> Math.clamp(value, 1, ContactService.MAX_PAGE_SIZE))
+            .orElse(ContactService.DEFAULT_PAGE_SIZE);
+    return contactRepository
+        .getContactsPage(
+            request.queryParam("name").orElse(null),
+            request.queryParam("surname").orElse(null),
+            genderParam(request),
+            intParam(request, "after").orElse(null),
+            pageSize)
+        .collectList()
+        .map(
+            contacts ->
+                new ContactPage(
+                    contacts, contacts.size() == pageSize ? contacts.getLast().getPin() : null))
+        .flatMap(page -> ServerResponse.ok().bodyValue(page));
+  }
+
+  public Mono<ServerResponse> createContactsUsingBody(ServerRequest request) {
+    return request
+        .bodyToMono(CONTACT_LIST)
+        .doOnNext(contactValidator::requireValid)
+        .flatMap(contactRepository::batchContactCreation)
+        .then(ServerResponse.ok().bodyValue("Contacts created successfully."));
+  }
+
+  public Mono<ServerResponse> createContactUsingUrlParams(ServerRequest request) {
+    Contact contact = new Contact();
+    contact.setPin(intParam(request, "pin").orElse(null));
+    contact.setName(request.queryParam("name").orElse(null));
+    contact.setSurname(request.queryParam("surname").orElse(null));
+    contact.setGender(genderParam(request));
+    ContactPhones phones = new ContactPhones();
+    phones.addAll(request.queryParams().getOrDefault("phone", List.of()));
+    contact.setPhones(phones);
+    ContactEmails emails = new ContactEmails();
+    emails.addAll(request.queryParams().getOrDefault("email", List.of()));
+    contact.setEmails(emails);
+    return Mono.fromRunnable(() -> contactValidator.requireValid(List.of(contact)))
+        .then(contactRepository.contactCreation(contact))
+        .then(ServerResponse.ok().bodyValue("Contact created successfully."));
+  }
+
+  public Mono<ServerResponse> deleteContactByPin(ServerRequest request) {
+    Integer pin = Integer.valueOf(request.pathVariable("pin"));
+    return contactRepository
+        .deleteContactByPin(pin)
+        .flatMap(
+            rows ->
+                ServerResponse.ok()
+                    .bodyValue(
+                        rows == 0
+                            ? "No contact found with PIN: " + pin
+                            : "Contact with PIN " + pin + " deleted successfully."));
+  }
+
+  public Mono<ServerResponse> updateContact(ServerRequest request) {
+    return request
+        .bodyToMono(Contact.class)
+        .doOnNext(contactValidator::requireValidUpdate)
+        .flatMap(contactRepository::updateContactDetails)
+        .flatMap(rows -> updated(rows, "Contact updated successfully!"));
+  }
+
+  public Mono<ServerResponse> updateContactAttribute(ServerRequest request) {
+    String attribute = request.queryParam("attribute").orElse("");
+    String newValue = request.queryParam("newValue").orElse(null);
+    String validationError = contactValidator.validateAttribute(attribute, newValue);
+    if (validationError != null) {
+      return ServerResponse.badRequest().bodyValue(validationError);
+    }
+    return contactRepository
+        .updateContactAttribute(
+            intParam(request, "pin").orElse(null),
+            attribute,
+            newValue,
+            request.queryParam("oldValue").orElse(null))
+        .flatMap(rows -> updated(rows, "Contact updated."));
+  }
+
+  public Mono<ServerResponse> deleteEmail(ServerRequest request) {
+    return contactRepository
+        .deleteEmail(intParam(request, "pin").orElse(null), request.queryParam("email").orElse(""))
+        .flatMap(rows -> updated(rows, "Email deleted successfully."));
+  }
+
+  public Mono<ServerResponse> deletePhone(ServerRequest request) {
+    return contactRepository
+        .deletePhone(intParam(request, "pin").orElse(null), request.queryParam("phone").orElse(""))
+        .flatMap(rows -> updated(rows, "Phone deleted successfully."));
+  }
+
+  private Flux<Contact> searchFlux(ServerRequest request) {
+    String name = request.queryParam("name").orElse(null);
+    String surname = request.queryParam("surname").orElse(null);
+    Gender gender = genderParam(request);
+    if (name == null && surname == null && gender == null) {
+      return contactRepository.getAllContacts();
+    }
+    return contactRepository.searchContactsByParameter(name, surname, gender);
+  }
+
+  private static ContactBatch toBatch(Integer[] pins, Map<Integer, Contact> found) {
+    List<Contact> contacts = new ArrayList<>(found.size());
+    List<Integer> missingPins = new ArrayList<>();
+    for (Integer pin : pins) {
+      Contact contact = found.get(pin);
+      if (contact == null) {
+        missingPins.add(pin);
+      } else {
+        contacts.add(contact);
+      }
+    }
+    return new ContactBatch(contacts, missingPins);
+  }
+
+  private static Mono<ServerResponse> updated(long rows, String message) {
+    return rows == 0
+        ? ServerResponse.status(404).bodyValue(NOT_FOUND)
+        : ServerResponse.ok().bodyValue(message);
+  }
+
+  private static Gender genderParam(ServerRequest request) {
+    return request.queryParam("gender").map(Gender::valueOf).orElse(null);
+  }
+
+  private static Optional<Integer> intParam(ServerRequest request, String name) {
+    return request.queryParam(name).map(Integer::valueOf);
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.AddressBook.controller.reactive;
+
+import com.example.AddressBook.exceptions.ContactValidationException;
+import com.example.AddressBook.exceptions.ErrorResponse;
+import com.example.AddressBook.repository.reactive.ReactiveContactRepository;
+import com.example.AddressBook.validation.ContactValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Functional WebFlux routes over {@link ReactiveContactRepository}, active when the application
+ * runs with {@code spring.main.web-application-type=reactive}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveContactRoutes {
+
+  // Tomcat is on the classpath as well; Netty serves every connection from a few event loops.
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+
+  @Bean
+  public ReactiveContactHandler reactiveContactHandler(
+      ReactiveContactRepository contactRepository, ContactValidator contactValidator) {
+    return new ReactiveContactHandler(contactRepository, contactValidator);
+  }
+
+  @Bean
+  public RouterFunction<ServerResponse> contactRoutes(ReactiveContactHandler handler) {
+    return routes(handler);
+  }
+
+  public static RouterFunction<ServerResponse> routes(ReactiveContactHandler handler) {
+    return RouterFunctions.route()
+        .path(
+            "/api/contacts",
+            builder ->
+                builder
+                    .GET("/findContact/{pin}", handler::getContactByPin)
+                    .POST("/findContactsByPins", handler::getContactsByPins)
+                    .GET("/findContacts", handler::searchContacts)
+                    .GET("/streamContacts", handler::streamContacts)
+                    .GET("/searchByName", handler::searchContactsByName)
+                    .GET("/findByPhone", handler::findContactsByPhone)
+                    .GET("/findByEmail", handler::findContactsByEmail)
+                    .GET("/findContactsPage", handler::searchContactsPage)
+                    .POST("/createContactFromJson", handler::createContactsUsingBody)
+                    .POST("/createContact", handler::createContactUsingUrlParams)
+                    .PUT("/updateContactAttributes", handler::updateContact)
+                    .PUT("/updateContactAttribute", handler::updateContactAttribute)
+                    .DELETE("/deleteEmail", handler::deleteEmail)
+                    .DELETE("/deletePhone", handler::deletePhone)
+                    .DELETE("/{pin}", handler::deleteContactByPin))
+        .onError(
+            ContactValidationException.class,
+            (e, request) ->
+                ServerResponse.badRequest().bodyValue(((ContactValidationException) e).getReport()))
+        .onError(
+            DataIntegrityViolationException.class,
+            (e, request) ->
+                ServerResponse.badRequest()
+                    .bodyValue(new ErrorResponse("Data integrity violation", e.getMessage())))
+        .onError(
+            IllegalArgumentException.class,
+            (e, request) ->
+                ServerResponse.badRequest()
+                    .bodyValue(new ErrorResponse("Invalid request parameter", e.getMessage())))
+        .build();
+  }
+}
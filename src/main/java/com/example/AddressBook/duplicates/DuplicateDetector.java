@@ -0,0 +1,293 @@
+package com.example.AddressBook.duplicates;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.DuplicatePair;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.repository.PhoneKeys;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds contacts that probably describe the same person without comparing every pair of contacts.
+ *
+ * <p>Contacts are grouped into blocks that duplicates are likely to share: the Soundex of the
+ * surname together with the first letter of the name, every phone key and every email address. Only
+ * contacts of the same block are compared, so the work grows with the block sizes instead of the
+ * square of the address book. A block larger than {@code maxBlockSize}, such as a common surname or
+ * an office switchboard number, is not compared pair by pair: its contacts are sorted by name and
+ * each is compared with the {@code window} contacts that follow it.
+ *
+ * <p>Blocks are scored in parallel by splitting them over a {@link ForkJoinPool}. A pair scores
+ * {@value #NAME_WEIGHT} times the Jaro-Winkler similarity of its names (in either order) plus
+ * {@value #CONTACT_WEIGHT} when it shares a phone number or email address, halved when both genders
+ * are known and differ. Pairs scoring at least {@code minScore} are reported.
+ *
+ * <p>Contacts are added from one thread, then {@link #detect} is called once.
+ */
+public class DuplicateDetector {
+
+  static final double NAME_WEIGHT = 0.7;
+  static final double CONTACT_WEIGHT = 0.3;
+  // Blocks per fork-join leaf; smaller leaves let idle workers steal the rest of a large split.
+  private static final int LEAF_BLOCKS = 8;
+
+  private final double minScore;
+  private final int maxBlockSize;
+  private final int window;
+  private final ArrayList<Entry> entries = new ArrayList<>();
+  private final LongAdder pairsCompared = new LongAdder();
+  private volatile int contactCount;
+  private volatile int blockCount;
+
+  public DuplicateDetector(double minScore, int maxBlockSize, int window) {
+    this.minScore = minScore;
+    this.maxBlockSize = maxBlockSize;
+    this.window = window;
+  }
+
+  public void add(Contact contact) {
+    entries.add(new Entry(contact));
+    contactCount = entries.size();
+  }
+
+  public int getContactCount() {
+    return contactCount;
+  }
+
+  public int getBlockCount() {
+    return blockCount;
+  }
+
+  public long getPairsCompared() {
+    return pairsCompared.sum();
+  }
+
+  /** Returns the pairs scoring at least minScore, best first, and releases the contacts. */
+  public List<DuplicatePair> detect(ForkJoinPool pool) {
+    List<int[]> blocks = buildBlocks();
+    blockCount = blocks.size();
+    Map<Long, DuplicatePair> found = new ConcurrentHashMap<>();
+    pool.invoke(new ScoreBlocks(blocks, 0, blocks.size(), found));
+    // The report outlives the scan; the contacts are not needed any more.
+    entries.clear();
+    entries.trimToSize();
+    List<DuplicatePair> ranked = new ArrayList<>(found.values());
+    ranked.sort(
+        Comparator.comparingDouble(DuplicatePair::getScore)
+            .reversed()
+            .thenComparingInt(DuplicatePair::getPin)
+            .thenComparingInt(DuplicatePair::getDuplicatePin));
+    return ranked;
+  }
+
+  // Blocks of a single contact have nothing to compare and are dropped.
+  private List<int[]> buildBlocks() {
+    Map<String, IntList> nameBlocks = new HashMap<>();
+    Map<Long, IntList> phoneBlocks = new HashMap<>();
+    Map<String, IntList> emailBlocks = new HashMap<>();
+    for (int i = 0; i < entries.size(); i++) {
+      Entry entry = entries.get(i);
+      String surnameKey = NameMatching.soundex(entry.surname);
+      if (!surnameKey.isEmpty()) {
+        String nameKey = entry.name.isEmpty() ? surnameKey : surnameKey + entry.name.charAt(0);
+        nameBlocks.computeIfAbsent(nameKey, key -> new IntList()).add(i);
+      }
+      for (long phoneKey : entry.phoneKeys) {
+        phoneBlocks.computeIfAbsent(phoneKey, key -> new IntList()).add(i);
+      }
+      for (String email : entry.emails) {
+        emailBlocks.computeIfAbsent(email, key -> new IntList()).add(i);
+      }
+    }
+    List<int[]> blocks = new ArrayList<>();
+    for (Map<?, IntList> blockMap : List.of(nameBlocks, phoneBlocks, emailBlocks)) {
+      for (IntList block : blockMap.values()) {
+        if (block.size > 1) {
+          blocks.add(block.toArray());
+        }
+      }
+    }
+    return blocks;
+  }
+
+  private long scoreBlock(int[] members, Map<Long, DuplicatePair> found) {
+    long compared = 0;
+    if (members.length <= maxBlockSize) {
+      for (int a = 0; a < members.length; a++) {
+        for (int b = a + 1; b < members.length; b++) {
+          compared += compare(members[a], members[b], found);
+        }
+      }
+      return compared;
+    }
+    int[] sorted =
+        Arrays.stream(members)
+            .boxed()
+            .sorted(Comparator.comparing(i -> entries.get(i).sortKey))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    for (int a = 0; a < sorted.length; a++) {
+      int end = Math.min(sorted.length, a + window + 1);
+      for (int b = a + 1; b < end; b++) {
+        compared += compare(sorted[a], sorted[b], found);
+      }
+    }
+    return compared;
+  }
+
+  // A pair that shares several blocks is scored again in each until it has been reported once.
+  private int compare(int i, int j, Map<Long, DuplicatePair> found) {
+    long pairKey = i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+    if (found.containsKey(pairKey)) {
+      return 0;
+    }
+    DuplicatePair pair = score(entries.get(i), entries.get(j));
+    if (pair != null) {
+      found.putIfAbsent(pairKey, pair);
+    }
+    return 1;
+  }
+
+  private DuplicatePair score(Entry a, Entry b) {
+    double direct =
+        (NameMatching.jaroWinkler(a.name, b.name) + NameMatching.jaroWinkler(a.surname, b.surname))
+            / 2;
+    double swapped =
+        (NameMatching.jaroWinkler(a.name, b.surname) + NameMatching.jaroWinkler(a.surname, b.name))
+            / 2;
+    double nameSimilarity = Math.max(direct, swapped);
+    boolean samePhone = shareAny(a.phoneKeys, b.phoneKeys);
+    boolean sameEmail = shareAny(a.emails, b.emails);
+    double score = NAME_WEIGHT * nameSimilarity + (samePhone || sameEmail ? CONTACT_WEIGHT : 0);
+    if (a.gender != null && b.gender != null && a.gender != b.gender) {
+      score /= 2;
+    }
+    if (score < minScore) {
+      return null;
+    }
+    return new DuplicatePair(
+        Math.min(a.pin, b.pin),
+        Math.max(a.pin, b.pin),
+        round(score),
+        round(nameSimilarity),
+        samePhone,
+        sameEmail);
+  }
+
+  private static boolean shareAny(long[] a, long[] b) {
+    for (long x : a) {
+      for (long y : b) {
+        if (x == y) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean shareAny(String[] a, String[] b) {
+    for (String x : a) {
+      for (String y : b) {
+        if (x.equals(y)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 1000) / 1000.0;
+  }
+
+  private class ScoreBlocks extends RecursiveAction {
+
+    private final List<int[]> blocks;
+    private final int from;
+    private final int to;
+    private final Map<Long, DuplicatePair> found;
+
+    ScoreBlocks(List<int[]> blocks, int from, int to, Map<Long, DuplicatePair> found) {
+      this.blocks = blocks;
+      this.from = from;
+      this.to = to;
+      this.found = found;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= LEAF_BLOCKS) {
+        long compared = 0;
+        for (int i = from; i < to; i++) {
+          compared += scoreBlock(blocks.get(i), found);
+        }
+        pairsCompared.add(compared);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new ScoreBlocks(blocks, from, middle, found), new ScoreBlocks(blocks, middle, to, found));
+    }
+  }
+
+  // What the detector keeps of a contact: normalized names, distinct phone keys and addresses.
+  private static final class Entry {
+    private final int pin;
+    private final String name;
+    private final String surname;
+    private final Gender gender;
+    private final long[] phoneKeys;
+    private final String[] emails;
+    private final String sortKey;
+
+    Entry(Contact contact) {
+      this.pin = contact.getPin();
+      this.name = NameMatching.normalize(contact.getName());
+      this.surname = NameMatching.normalize(contact.getSurname());
+      this.gender = contact.getGender();
+      this.phoneKeys =
+          contact.getPhones() == null
+              ? new long[0]
+              : contact.getPhones().stream()
+                  .map(PhoneKeys::of)
+                  .filter(Objects::nonNull)
+                  .mapToLong(Long::longValue)
+                  .distinct()
+                  .toArray();
+      this.emails =
+          contact.getEmails() == null
+              ? new String[0]
+              : contact.getEmails().stream()
+                  .map(email -> email.toLowerCase(Locale.ROOT))
+                  .distinct()
+                  .toArray(String[]::new);
+      this.sortKey = surname + ' ' + name;
+    }
+  }
+
+  private static final class IntList {
+    private int[] values = new int[2];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.AddressBook.duplicates;
+
+import java.text.Normalizer;
+
+/** Name normalization, phonetic keys and string similarity used by {@link DuplicateDetector}. */
+final class NameMatching {
+
+  // Soundex digit of each letter a-z, 0 for vowels and h, w and y, which get no digit.
+  private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+  private NameMatching() {}
+
+  /** Lower case letters only, with accents removed: "Marić-Horvat" becomes "marichorvat". */
+  static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+    StringBuilder normalized = new StringBuilder(decomposed.length());
+    for (int i = 0; i < decomposed.length(); i++) {
+      char c = decomposed.charAt(i);
+      if (c == 'đ' || c == 'Đ') {
+        normalized.append('d');
+      } else if (Character.isLetter(c)) {
+        normalized.append(Character.toLowerCase(c));
+      }
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * American Soundex of a normalized name: its first letter and up to three digits for the
+   * consonants that follow, so "horvat" and "horvath" both become "h613". Empty for names without
+   * letters a-z.
+   */
+  static String soundex(String normalized) {
+    StringBuilder key = new StringBuilder(4);
+    char previous = 0;
+    for (int i = 0; i < normalized.length() && key.length() < 4; i++) {
+      char c = normalized.charAt(i);
+      if (c < 'a' || c > 'z') {
+        continue;
+      }
+      char code = SOUNDEX_CODES.charAt(c - 'a');
+      if (key.isEmpty()) {
+        key.append(c);
+      } else if (code != '0' && code != previous) {
+        key.append(code);
+      }
+      // h and w do not separate consonants with the same code, vowels do.
+      if (c != 'h' && c != 'w') {
+        previous = code;
+      }
+    }
+    return key.toString();
+  }
+
+  /** Jaro-Winkler similarity between 0 (nothing in common) and 1 (equal). */
+  static double jaroWinkler(String a, String b) {
+    if (a.equals(b)) {
+      return a.isEmpty() ? 0 : 1;
+    }
+    if (a.isEmpty() || b.isEmpty()) {
+      return 0;
+    }
+    int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+    boolean[] aMatched = new boolean[a.length()];
+    boolean[] bMatched = new boolean[b.length()];
+    int matches = 0;
+    for (int i = 0; i < a.length(); i++) {
+      int end = Math.min(i + window + 1, b.length());
+      for (int j = Math.max(0, i - window); j < end; j++) {
+        if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+          aMatched[i] = true;
+          bMatched[j] = true;
+          matches++;
+          break;
+        }
+      }
+    }
+    if (matches == 0) {
+      return 0;
+    }
+    int transpositions = 0;
+    for (int i = 0, j = 0; i < a.length(); i++) {
+      if (aMatched[i]) {
+        while (!bMatched[j]) {
+          j++;
+        }
+        if (a.charAt(i) != b.charAt(j)) {
+          transpositions++;
+        }
+        j++;
+      }
+    }
+    double m = matches;
+    double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+    int prefix = 0;
+    while (prefix < Math.min(4, Math.min(a.length(), b.length()))
+        && a.charAt(prefix) == b.charAt(prefix)) {
+      prefix++;
+    }
+    return jaro + prefix * 0.1 * (1 - jaro);
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.AddressBook.exceptions;
+
+import com.example.AddressBook.model.ValidationReport;
+import lombok.Getter;
+
+@Getter
+public class ContactValidationException extends RuntimeException {
+  private final ValidationReport report;
+
+  public ContactValidationException(ValidationReport report) {
+    super("Validation failed for " + report.getErrors().size() + " field(s).");
+    this.report = report;
+  }
+}
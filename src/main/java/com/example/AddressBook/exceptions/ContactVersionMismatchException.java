@@ -0,0 +1,13 @@
+package com.example.AddressBook.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ContactVersionMismatchException extends RuntimeException {
+  private final Integer pin;
+
+  public ContactVersionMismatchException(Integer pin) {
+    super("Contact with pin " + pin + " has been changed since the given ETag.");
+    this.pin = pin;
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.AddressBook.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ExportQueueFullException extends RuntimeException {
+  private final int queued;
+
+  public ExportQueueFullException(int queued) {
+    super("Export queue is full: " + queued + " exports are waiting. Retry later.");
+    this.queued = queued;
+  }
+}
@@ -1,11 +1,14 @@
 package com.example.AddressBook.exceptions;
 
+import com.example.AddressBook.model.ValidationReport;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
@@ -18,20 +21,64 @@ import org.springframework.web.method.annotation.HandlerMethodValidationExceptio
 public class GlobalExceptionHandler {
   private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+  private final MeterRegistry meterRegistry;
+
+  public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @ExceptionHandler(ContactValidationException.class)
+  public ResponseEntity<ValidationReport> handleContactValidationException(
+      ContactValidationException ex) {
+    countException(ex);
+    return new ResponseEntity<>(ex.getReport(), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(ContactVersionMismatchException.class)
+  public ResponseEntity<ErrorResponse> handleContactVersionMismatchException(
+      ContactVersionMismatchException ex) {
+    countException(ex);
+    ErrorResponse errorResponse = new ErrorResponse("Precondition failed", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+  }
+
+  @ExceptionHandler(IngestionQueueFullException.class)
+  public ResponseEntity<ErrorResponse> handleIngestionQueueFullException(
+      IngestionQueueFullException ex) {
+    countException(ex);
+    ErrorResponse errorResponse = new ErrorResponse("Too many requests", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errorResponse);
+  }
+
+  // Exports take minutes, so a retry within the second would only be rejected again.
+  @ExceptionHandler(ExportQueueFullException.class)
+  public ResponseEntity<ErrorResponse> handleExportQueueFullException(ExportQueueFullException ex) {
+    countException(ex);
+    ErrorResponse errorResponse = new ErrorResponse("Too many requests", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, "60")
+        .body(errorResponse);
+  }
+
   @ExceptionHandler(DataAccessException.class)
   public ResponseEntity<ErrorResponse> handleDataAccessException(DataAccessException ex) {
+    countException(ex);
     ErrorResponse errorResponse = new ErrorResponse("Database error", ex.getMessage());
     return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
   @ExceptionHandler(EmptyResultDataAccessException.class)
   public ResponseEntity<String> handleEmptyResult(EmptyResultDataAccessException ex) {
+    countException(ex);
     return new ResponseEntity<>("No records found for the given criteria.", HttpStatus.NOT_FOUND);
   }
 
   @ExceptionHandler(CannotGetJdbcConnectionException.class)
   public ResponseEntity<ErrorResponse> handleCannotGetJdbcConnectionException(
       CannotGetJdbcConnectionException ex) {
+    countException(ex);
     ErrorResponse errorResponse = new ErrorResponse("Database connection error", ex.getMessage());
     return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
   }
@@ -39,6 +86,7 @@ public class GlobalExceptionHandler {
   @ExceptionHandler(DataIntegrityViolationException.class)
   public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
       DataIntegrityViolationException ex) {
+    countException(ex);
     ErrorResponse errorResponse = new ErrorResponse("Data integrity violation", ex.getMessage());
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
@@ -46,20 +94,36 @@ public class GlobalExceptionHandler {
   @ExceptionHandler(java.sql.SQLIntegrityConstraintViolationException.class)
   public ResponseEntity<ErrorResponse> handleSQLIntegrityConstraintViolationException(
       java.sql.SQLIntegrityConstraintViolationException ex) {
+    countException(ex);
     ErrorResponse errorResponse =
         new ErrorResponse("Integrity constraint violation", ex.getMessage());
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+    countException(ex);
+    ErrorResponse errorResponse = new ErrorResponse("Invalid request parameter", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
+    countException(ex);
     ErrorResponse errorResponse = new ErrorResponse("Internal server error", ex.getMessage());
     return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
   @ExceptionHandler(HandlerMethodValidationException.class)
   public ResponseEntity<String> handleValidationExceptions(HandlerMethodValidationException ex) {
+    countException(ex);
     return ResponseEntity.status(HttpStatus.NOT_FOUND)
         .body("Validation failed! " + ex.getDetailMessageArguments()[0]);
   }
+
+  private void countException(Exception ex) {
+    meterRegistry
+        .counter("addressbook.exceptions", "exception", ex.getClass().getSimpleName())
+        .increment();
+  }
 }
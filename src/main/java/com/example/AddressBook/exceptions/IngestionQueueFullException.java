@@ -0,0 +1,20 @@
+package com.example.AddressBook.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class IngestionQueueFullException extends RuntimeException {
+  private final int requested;
+  private final int available;
+
+  public IngestionQueueFullException(int requested, int available) {
+    super(
+        "Ingestion queue is full: "
+            + requested
+            + " contacts requested, room for "
+            + available
+            + ". Retry later.");
+    this.requested = requested;
+    this.available = available;
+  }
+}
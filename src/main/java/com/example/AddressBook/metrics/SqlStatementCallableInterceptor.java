@@ -0,0 +1,34 @@
+package com.example.AddressBook.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Counts the statements of an asynchronous {@code Callable} or {@code StreamingResponseBody}
+ * towards the request that started it, on the thread that runs it.
+ */
+public class SqlStatementCallableInterceptor implements CallableProcessingInterceptor {
+
+  @Override
+  public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+    Object count =
+        request.getAttribute(
+            SqlStatementMetricsFilter.COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (count instanceof AtomicInteger requestCount) {
+      request.setAttribute(
+          SqlStatementMetricsFilter.COUNTED_ASYNC_ATTRIBUTE,
+          Boolean.TRUE,
+          RequestAttributes.SCOPE_REQUEST);
+      SqlStatementCounter.attach(requestCount);
+    }
+  }
+
+  // Called on the same thread as preProcess, also when the task failed.
+  @Override
+  public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+    SqlStatementCounter.attach(null);
+  }
+}
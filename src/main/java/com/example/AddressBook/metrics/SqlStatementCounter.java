@@ -0,0 +1,73 @@
+package com.example.AddressBook.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts SQL statements executed by the current thread between {@link #start()} and {@link
+ * #stop()}, and by tasks it hands to other threads through {@link #propagate}.
+ */
+public final class SqlStatementCounter {
+
+  // Shared with the threads of propagated tasks, which may count at the same time.
+  private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+  private SqlStatementCounter() {}
+
+  public static void start() {
+    COUNT.set(new AtomicInteger());
+  }
+
+  public static int stop() {
+    AtomicInteger count = COUNT.get();
+    COUNT.remove();
+    return count == null ? 0 : count.get();
+  }
+
+  public static int current() {
+    AtomicInteger count = COUNT.get();
+    return count == null ? 0 : count.get();
+  }
+
+  /**
+   * Wraps {@code task} so that the statements it executes, on whichever thread runs it, are added
+   * to the count of the calling thread. Returns {@code task} itself when nothing is being counted.
+   */
+  public static <T> Callable<T> propagate(Callable<T> task) {
+    AtomicInteger count = COUNT.get();
+    if (count == null) {
+      return task;
+    }
+    return () -> {
+      AtomicInteger previous = attach(count);
+      try {
+        return task.call();
+      } finally {
+        attach(previous);
+      }
+    };
+  }
+
+  // The count of the current thread, to be attached to the threads that continue its work.
+  static AtomicInteger capture() {
+    return COUNT.get();
+  }
+
+  // Makes the current thread add to count, or to nothing when it is null; returns what it added to.
+  static AtomicInteger attach(AtomicInteger count) {
+    AtomicInteger previous = COUNT.get();
+    if (count == null) {
+      COUNT.remove();
+    } else {
+      COUNT.set(count);
+    }
+    return previous;
+  }
+
+  static void increment() {
+    AtomicInteger count = COUNT.get();
+    if (count != null) {
+      count.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.AddressBook.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each HTTP request executed, tagged like http.server.requests.
+ *
+ * <p>An asynchronous request is recorded when it completes. The statements of a {@code Callable} or
+ * {@code StreamingResponseBody} are counted on the thread that runs it, through {@link
+ * SqlStatementCallableInterceptor}. Other asynchronous requests, such as a {@code DeferredResult}
+ * completed by a background thread, run their statements where they cannot be attributed, so they
+ * are not recorded rather than recorded too low.
+ */
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+  static final String COUNT_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".count";
+  static final String COUNTED_ASYNC_ATTRIBUTE =
+      SqlStatementMetricsFilter.class.getName() + ".countedAsync";
+
+  private final MeterRegistry meterRegistry;
+
+  public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    SqlStatementCounter.start();
+    AtomicInteger count = SqlStatementCounter.capture();
+    // Set before the handler runs: an asynchronous task may start before the chain returns.
+    request.setAttribute(COUNT_ATTRIBUTE, count);
+    boolean async = false;
+    try {
+      filterChain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        async = true;
+        request.getAsyncContext().addListener(new RecordOnComplete(request, count));
+      }
+    } finally {
+      int statements = SqlStatementCounter.stop();
+      if (!async) {
+        record(request, statements);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, int statements) {
+    Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    DistributionSummary.builder("addressbook.http.sql.statements")
+        .description("SQL statements executed per HTTP request")
+        .tag("method", request.getMethod())
+        .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+        .register(meterRegistry)
+        .record(statements);
+  }
+
+  private class RecordOnComplete implements AsyncListener {
+
+    private final HttpServletRequest request;
+    private final AtomicInteger count;
+
+    RecordOnComplete(HttpServletRequest request, AtomicInteger count) {
+      this.request = request;
+      this.count = count;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      if (request.getAttribute(COUNTED_ASYNC_ATTRIBUTE) != null) {
+        record(request, count.get());
+      }
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {}
+
+    @Override
+    public void onError(AsyncEvent event) {}
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
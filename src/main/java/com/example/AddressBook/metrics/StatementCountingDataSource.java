@@ -0,0 +1,66 @@
+package com.example.AddressBook.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Reports every executed statement to {@link SqlStatementCounter}. A JDBC batch counts as one
+ * statement, since it is sent in one round trip. {@code unwrap} still reaches the driver
+ * connection, so {@code CopyManager} keeps working.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  public StatementCountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return countingConnection(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return countingConnection(super.getConnection(username, password));
+  }
+
+  private static Connection countingConnection(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            StatementCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              Object result = invoke(connection, method, args);
+              if (result instanceof Statement statement) {
+                return countingStatement(statement, method.getReturnType());
+              }
+              return result;
+            });
+  }
+
+  private static Object countingStatement(Statement statement, Class<?> statementType) {
+    return Proxy.newProxyInstance(
+        StatementCountingDataSource.class.getClassLoader(),
+        new Class<?>[] {statementType},
+        (proxy, method, args) -> {
+          if (method.getName().startsWith("execute")) {
+            SqlStatementCounter.increment();
+          }
+          return invoke(statement, method, args);
+        });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
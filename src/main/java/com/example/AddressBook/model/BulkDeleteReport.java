@@ -0,0 +1,21 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+@Data
+public class BulkDeleteReport {
+  private int requested;
+  private int deleted;
+  private int missing;
+  private int invalid;
+
+  public void addChunk(int requestedCount, int deletedCount) {
+    requested += requestedCount;
+    deleted += deletedCount;
+    missing += requestedCount - deletedCount;
+  }
+
+  public void addInvalid() {
+    invalid++;
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.AddressBook.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -18,6 +19,9 @@ public class Contact {
   private ContactEmails emails;
   private ContactPhones phones;
 
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
   public Contact() {}
 
   @Override
@@ -41,6 +45,9 @@ public class Contact {
         + ", emails='"
         + emails
         + '\''
+        + ", version='"
+        + version
+        + '\''
         + '}';
   }
 }
@@ -0,0 +1,15 @@
+package com.example.AddressBook.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ContactBatch {
+  private List<Contact> contacts;
+  private List<Integer> missingPins;
+
+  public ContactBatch(List<Contact> contacts, List<Integer> missingPins) {
+    this.contacts = contacts;
+    this.missingPins = missingPins;
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+@Data
+public class ContactCacheStats {
+  private long size;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private double hitRate;
+}
@@ -0,0 +1,18 @@
+package com.example.AddressBook.model;
+
+import java.time.OffsetDateTime;
+import lombok.Data;
+
+/**
+ * One entry of the change feed. {@code contact} is the current state of the contact, so it can be
+ * newer than {@code version}; it is null for deletions and for contacts deleted since.
+ */
+@Data
+public class ContactChange {
+  private Long sequence;
+  private Integer pin;
+  private ContactChangeType type;
+  private Long version;
+  private OffsetDateTime changedAt;
+  private Contact contact;
+}
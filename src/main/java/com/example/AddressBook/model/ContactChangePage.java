@@ -0,0 +1,15 @@
+package com.example.AddressBook.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ContactChangePage {
+  private List<ContactChange> changes;
+  private Long nextSequence;
+
+  public ContactChangePage(List<ContactChange> changes, Long nextSequence) {
+    this.changes = changes;
+    this.nextSequence = nextSequence;
+  }
+}
@@ -0,0 +1,6 @@
+package com.example.AddressBook.model;
+
+public enum ContactChangeType {
+  UPSERT,
+  DELETE
+}
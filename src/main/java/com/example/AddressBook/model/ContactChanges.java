@@ -0,0 +1,14 @@
+package com.example.AddressBook.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ContactChanges {
+  private boolean detailsUpdated;
+  private List<String> addedPhones = new ArrayList<>();
+  private List<String> removedPhones = new ArrayList<>();
+  private List<String> addedEmails = new ArrayList<>();
+  private List<String> removedEmails = new ArrayList<>();
+}
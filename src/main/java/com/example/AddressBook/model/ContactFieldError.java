@@ -0,0 +1,20 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+@Data
+public class ContactFieldError {
+  private Integer index;
+  private Integer pin;
+  private String field;
+  private String value;
+  private String message;
+
+  public ContactFieldError(Integer index, Integer pin, String field, String value, String message) {
+    this.index = index;
+    this.pin = pin;
+    this.field = field;
+    this.value = value;
+    this.message = message;
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+@Data
+public class ContactMatch {
+  private Contact contact;
+  private double score;
+
+  public ContactMatch(Contact contact, double score) {
+    this.contact = contact;
+    this.score = score;
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.AddressBook.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ContactPage {
+  private List<Contact> contacts;
+  private Integer nextCursor;
+
+  public ContactPage(List<Contact> contacts, Integer nextCursor) {
+    this.contacts = contacts;
+    this.nextCursor = nextCursor;
+  }
+}
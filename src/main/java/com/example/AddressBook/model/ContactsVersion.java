@@ -0,0 +1,30 @@
+package com.example.AddressBook.model;
+
+import java.util.List;
+import lombok.Data;
+
+// Any write to a listed contact raises maxVersion and versionSum, and a deleted contact lowers
+// the count, so the three together change whenever the list does.
+@Data
+public class ContactsVersion {
+  private long count;
+  private long maxVersion;
+  private long versionSum;
+
+  public ContactsVersion(long count, long maxVersion, long versionSum) {
+    this.count = count;
+    this.maxVersion = maxVersion;
+    this.versionSum = versionSum;
+  }
+
+  public static ContactsVersion of(List<Contact> contacts) {
+    long maxVersion = 0;
+    long versionSum = 0;
+    for (Contact contact : contacts) {
+      long version = contact.getVersion() != null ? contact.getVersion() : 0;
+      maxVersion = Math.max(maxVersion, version);
+      versionSum += version;
+    }
+    return new ContactsVersion(contacts.size(), maxVersion, versionSum);
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+@Data
+public class CsvImportReport {
+  private long rowsRead;
+  private int contactsCreated;
+  private int contactsSkipped;
+  private int phonesCreated;
+  private int emailsCreated;
+}
@@ -0,0 +1,30 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+/** Two contacts that probably describe the same person; {@code pin} is the lower of the two. */
+@Data
+public class DuplicatePair {
+  private int pin;
+  private int duplicatePin;
+  // 0 to 1; the ranking of the duplicate report.
+  private double score;
+  private double nameSimilarity;
+  private boolean samePhone;
+  private boolean sameEmail;
+
+  public DuplicatePair(
+      int pin,
+      int duplicatePin,
+      double score,
+      double nameSimilarity,
+      boolean samePhone,
+      boolean sameEmail) {
+    this.pin = pin;
+    this.duplicatePin = duplicatePin;
+    this.score = score;
+    this.nameSimilarity = nameSimilarity;
+    this.samePhone = samePhone;
+    this.sameEmail = sameEmail;
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.AddressBook.model;
+
+public enum DuplicateScanState {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,21 @@
+package com.example.AddressBook.model;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class DuplicateScanStatus {
+  private String jobId;
+  private DuplicateScanState state;
+  private double minScore;
+  private long contactsScanned;
+  private long blocks;
+  private long pairsCompared;
+  private long duplicatesFound;
+  // One page of the ranked report, highest score first; filled once the scan has completed.
+  private List<DuplicatePair> duplicates;
+  private String error;
+  private Instant createdAt;
+  private Instant completedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.AddressBook.model;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+  CSV("csv", "text/csv"),
+  NDJSON("ndjson", "application/x-ndjson");
+
+  private final String extension;
+  private final String mediaType;
+
+  ExportFormat(String extension, String mediaType) {
+    this.extension = extension;
+    this.mediaType = mediaType;
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.AddressBook.model;
+
+import java.time.Instant;
+import lombok.Data;
+
+@Data
+public class ExportJobStatus {
+  private String jobId;
+  private ExportFormat format;
+  private ExportState state;
+  // Contacts counted when the export started; contacts created meanwhile can make it grow past.
+  private long totalContacts;
+  private long exportedContacts;
+  private Long fileSize;
+  private String downloadUrl;
+  private String error;
+  private Instant createdAt;
+  private Instant completedAt;
+}
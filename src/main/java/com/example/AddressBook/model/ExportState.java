@@ -0,0 +1,8 @@
+package com.example.AddressBook.model;
+
+public enum ExportState {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,16 @@
+package com.example.AddressBook.model;
+
+import lombok.Data;
+
+@Data
+public class ImportFailure {
+  private int index;
+  private Integer pin;
+  private String error;
+
+  public ImportFailure(int index, Integer pin, String error) {
+    this.index = index;
+    this.pin = pin;
+    this.error = error;
+  }
+}
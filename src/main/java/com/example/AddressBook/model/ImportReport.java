@@ -0,0 +1,26 @@
+package com.example.AddressBook.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ImportReport {
+  private int total;
+  private int created;
+  private int failed;
+  private List<ImportFailure> failures = new ArrayList<>();
+
+  public ImportReport(int total) {
+    this.total = total;
+  }
+
+  public void addCreated(int count) {
+    created += count;
+  }
+
+  public void addFailure(int index, Integer pin, String error) {
+    failures.add(new ImportFailure(index, pin, error));
+    failed++;
+  }
+}
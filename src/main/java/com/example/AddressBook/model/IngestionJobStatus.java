@@ -0,0 +1,18 @@
+package com.example.AddressBook.model;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class IngestionJobStatus {
+  private String jobId;
+  private IngestionState state;
+  private int total;
+  private int created;
+  private int failed;
+  private int pending;
+  private List<ImportFailure> failures;
+  private Instant submittedAt;
+  private Instant completedAt;
+}
@@ -0,0 +1,7 @@
+package com.example.AddressBook.model;
+
+public enum IngestionState {
+  QUEUED,
+  RUNNING,
+  COMPLETED
+}
@@ -0,0 +1,7 @@
+package com.example.AddressBook.model;
+
+public enum NameSearchMode {
+  SUBSTRING,
+  PREFIX,
+  FUZZY
+}
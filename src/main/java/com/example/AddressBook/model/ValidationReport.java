@@ -0,0 +1,19 @@
+package com.example.AddressBook.model;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ValidationReport {
+  private int checked;
+  private List<ContactFieldError> errors;
+
+  public ValidationReport(int checked, List<ContactFieldError> errors) {
+    this.checked = checked;
+    this.errors = errors;
+  }
+
+  public boolean isValid() {
+    return errors.isEmpty();
+  }
+}
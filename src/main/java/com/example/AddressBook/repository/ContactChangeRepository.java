@@ -0,0 +1,75 @@
+package com.example.AddressBook.repository;
+
+import com.example.AddressBook.model.ContactChange;
+import com.example.AddressBook.model.ContactChangeType;
+import com.example.AddressBook.repository.mappers.ContactRowMapper;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads and compacts {@code contact_changes}, which a trigger on {@code contacts} fills in the
+ * writing transaction.
+ */
+@Repository
+public class ContactChangeRepository {
+
+  private static final ContactRowMapper contactMapping = new ContactRowMapper();
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final RowMapper<ContactChange> changeMapping =
+      (rs, rowNum) -> {
+        ContactChange change = new ContactChange();
+        change.setSequence(rs.getLong("change_seq"));
+        change.setPin(rs.getInt("change_pin"));
+        change.setType(ContactChangeType.valueOf(rs.getString("change_operation")));
+        change.setVersion(rs.getLong("change_version"));
+        change.setChangedAt(rs.getObject("changed_at", OffsetDateTime.class));
+        if (change.getType() == ContactChangeType.UPSERT && rs.getObject("pin") != null) {
+          change.setContact(contactMapping.mapRow(rs, rowNum));
+        }
+        return change;
+      };
+
+  // Changes in (afterSequence, upToSequence] with the current state of each changed contact.
+  public List<ContactChange> getChanges(long afterSequence, long upToSequence, int limit) {
+    String sql =
+        "SELECT ch.seq AS change_seq, ch.pin AS change_pin, ch.operation AS change_operation, "
+            + "ch.version AS change_version, ch.changed_at, "
+            + JdbcContactRepository.CONTACT_COLUMNS
+            + " FROM contact_changes ch LEFT JOIN contacts c ON c.pin = ch.pin "
+            + "WHERE ch.seq > ? AND ch.seq <= ? ORDER BY ch.seq LIMIT ?";
+    return jdbcTemplate.query(sql, changeMapping, afterSequence, upToSequence, limit);
+  }
+
+  // The highest sequence number handed out so far, committed or not.
+  public long getLastSequenceValue() {
+    return jdbcTemplate.queryForObject(
+        "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM contact_change_seq",
+        Long.class);
+  }
+
+  // Oldest transaction id still running and the next one to be assigned, as {xmin, xmax}.
+  public long[] getTransactionBounds() {
+    return jdbcTemplate.queryForObject(
+        "SELECT CAST(CAST(pg_snapshot_xmin(s) AS text) AS bigint) AS xmin, "
+            + "CAST(CAST(pg_snapshot_xmax(s) AS text) AS bigint) AS xmax "
+            + "FROM pg_current_snapshot() AS s",
+        (rs, rowNum) -> new long[] {rs.getLong("xmin"), rs.getLong("xmax")});
+  }
+
+  // Drops entries that a later entry of the same contact supersedes. A consumer at any position
+  // still reads the latest change of every contact after it, so compaction never loses state.
+  public int compact(Duration retention) {
+    return jdbcTemplate.update(
+        "DELETE FROM contact_changes ch "
+            + "WHERE ch.changed_at < now() - make_interval(secs => ?) "
+            + "AND EXISTS (SELECT 1 FROM contact_changes n WHERE n.pin = ch.pin AND n.seq > ch.seq)",
+        (double) retention.toSeconds());
+  }
+}
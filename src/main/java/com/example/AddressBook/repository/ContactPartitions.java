@@ -0,0 +1,158 @@
+package com.example.AddressBook.repository;
+
+import com.example.AddressBook.metrics.SqlStatementCounter;
+import com.example.AddressBook.model.Contact;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The hash partitions of {@code contacts} created by {@code partition_contacts}, and the fan-out of
+ * a read over all of them. Each partition is queried on its own connection by one of {@code
+ * addressbook.partitions.fan-out-threads} threads, and the per-partition results, each ordered by
+ * pin, are merged into one list ordered by pin.
+ *
+ * <p>The partitions are read from the catalog after startup and every {@code
+ * addressbook.partitions.refresh-interval}, so tables partitioned while the application runs are
+ * picked up without a restart. Until then, and on unpartitioned tables, reads run as one query.
+ */
+@Component
+public class ContactPartitions {
+
+  private static final Logger log = LoggerFactory.getLogger(ContactPartitions.class);
+  // regclass text is quoted and schema-qualified where needed, so it can be used as a table name.
+  private static final String SELECT_PARTITIONS =
+      "SELECT inhrelid::regclass::text FROM pg_inherits "
+          + "WHERE inhparent = to_regclass('contacts') ORDER BY inhrelid";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ExecutorService executor;
+  private volatile List<String> partitions = List.of();
+
+  public ContactPartitions(
+      JdbcTemplate jdbcTemplate,
+      @Value("${addressbook.partitions.fan-out-threads:8}") int fanOutThreads) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.executor =
+        Executors.newFixedThreadPool(
+            fanOutThreads, Thread.ofPlatform().name("partition-fan-out-", 0).daemon().factory());
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${addressbook.partitions.refresh-interval:1m}",
+      initialDelayString = "${addressbook.partitions.refresh-interval:1m}")
+  public void refresh() {
+    try {
+      List<String> found = jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class);
+      if (!found.equals(partitions)) {
+        log.info("contacts has {} partitions", found.size());
+        partitions = List.copyOf(found);
+      }
+    } catch (DataAccessException e) {
+      log.warn("Could not read the partitions of contacts, keeping {}", partitions.size(), e);
+    }
+  }
+
+  public List<String> getPartitions() {
+    return partitions;
+  }
+
+  /**
+   * Whether reads should fan out. Inside a transaction they do not: the partitions would be read
+   * outside of it, on other connections and snapshots.
+   */
+  public boolean canFanOut() {
+    return partitions.size() > 1 && !TransactionSynchronizationManager.isActualTransactionActive();
+  }
+
+  /**
+   * Runs {@code partitionQuery} for every partition in parallel and merges the results, which must
+   * each be ordered by pin. The first failing partition fails the whole read: the other partition
+   * queries are cancelled and interrupted, so those still waiting for a thread, a permit or a
+   * connection never run. Statements run by the partition queries count towards the {@link
+   * SqlStatementCounter} of the calling thread.
+   */
+  public List<Contact> fanOut(Function<String, List<Contact>> partitionQuery) {
+    CompletionService<List<Contact>> completion = new ExecutorCompletionService<>(executor);
+    List<Future<List<Contact>>> queries =
+        partitions.stream()
+            .map(
+                partition ->
+                    completion.submit(
+                        SqlStatementCounter.propagate(() -> partitionQuery.apply(partition))))
+            .toList();
+    // Taken in the order they finish, so a failure is seen while slower partitions still run.
+    List<List<Contact>> results = new ArrayList<>(Collections.nCopies(queries.size(), null));
+    try {
+      for (int i = 0; i < queries.size(); i++) {
+        Future<List<Contact>> query = completion.take();
+        results.set(queries.indexOf(query), query.get());
+      }
+    } catch (ExecutionException e) {
+      queries.forEach(query -> query.cancel(true));
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      queries.forEach(query -> query.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while reading the partitions of contacts", e);
+    }
+    return mergeByPin(results);
+  }
+
+  /** Merges lists that are each ordered by pin into one list ordered by pin. */
+  public static List<Contact> mergeByPin(List<List<Contact>> sortedLists) {
+    int size = sortedLists.stream().mapToInt(List::size).sum();
+    List<Contact> merged = new ArrayList<>(size);
+    // Each cursor is {list, position}; the queue holds one cursor per unfinished list.
+    PriorityQueue<int[]> cursors =
+        new PriorityQueue<>(
+            Comparator.comparingInt(
+                (int[] cursor) -> sortedLists.get(cursor[0]).get(cursor[1]).getPin()));
+    for (int i = 0; i < sortedLists.size(); i++) {
+      if (!sortedLists.get(i).isEmpty()) {
+        cursors.add(new int[] {i, 0});
+      }
+    }
+    while (!cursors.isEmpty()) {
+      int[] cursor = cursors.poll();
+      List<Contact> list = sortedLists.get(cursor[0]);
+      merged.add(list.get(cursor[1]));
+      if (++cursor[1] < list.size()) {
+        cursors.add(cursor);
+      }
+    }
+    return merged;
+  }
+}
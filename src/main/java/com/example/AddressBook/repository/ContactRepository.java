@@ -1,10 +1,15 @@
 package com.example.AddressBook.repository;
 
 import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactChanges;
 import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactMatch;
 import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.ContactsVersion;
 import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.NameSearchMode;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ContactRepository {
 
@@ -12,9 +17,27 @@ public interface ContactRepository {
 
   Contact getContactByPin(Integer pin);
 
+  Long getContactVersion(Integer pin);
+
+  ContactsVersion getContactsVersion(String nameValue, String surnameValue, Gender genderValue);
+
+  List<Contact> getContactsByPins(int[] pins);
+
+  List<Contact> getContactsByPhone(String phone);
+
+  List<Contact> getContactsByEmail(String email);
+
   List<Contact> searchContactsByParameter(
       String nameValue, String surnameValue, Gender genderValue);
 
+  List<ContactMatch> searchContactsByName(String query, NameSearchMode mode, int limit);
+
+  List<Contact> getContactsPage(
+      String nameValue, String surnameValue, Gender genderValue, Integer afterPin, int limit);
+
+  void streamContacts(
+      String nameValue, String surnameValue, Gender genderValue, Consumer<Contact> consumer);
+
   void contactCreation(
       Integer pin,
       String name,
@@ -23,13 +46,19 @@ public interface ContactRepository {
       ContactPhones phones,
       ContactEmails emails);
 
+  void batchContactCreation(List<Contact> contacts);
+
   String deleteContactByPin(Integer pin);
 
-  void updateContactDetails(Contact updatedContact, Contact updateRequest);
+  int[] deleteContactsByPins(int[] pins);
+
+  ContactChanges updateContactDetails(
+      Contact updatedContact, Contact updateRequest, Long expectedVersion);
 
-  void deleteEmail(Integer pin, String email);
+  boolean deleteEmail(Integer pin, String email);
 
-  void deletePhone(Integer pin, String phone);
+  boolean deletePhone(Integer pin, String phone);
 
-  void updateContactAttribute(Integer pin, String attribute, String newValue, String oldValue);
+  boolean updateContactAttribute(
+      Integer pin, String attribute, String newValue, String oldValue, Long expectedVersion);
 }
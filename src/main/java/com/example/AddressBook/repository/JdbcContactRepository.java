@@ -1,81 +1,221 @@
 package com.example.AddressBook.repository;
 
+import com.example.AddressBook.exceptions.ContactVersionMismatchException;
 import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactChanges;
 import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactMatch;
 import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.ContactsVersion;
 import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.NameSearchMode;
 import com.example.AddressBook.repository.mappers.ContactRowMapper;
-import java.sql.SQLException;
+import com.example.AddressBook.repository.search.NGramContactIndex;
+import io.micrometer.core.annotation.Timed;
+import java.sql.PreparedStatement;
 import java.util.*;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Repository
+@Timed("addressbook.repository.jdbc")
 public class JdbcContactRepository implements ContactRepository {
 
   private static final Logger log = LoggerFactory.getLogger(JdbcContactRepository.class);
   private static final ContactRowMapper contractMapping = new ContactRowMapper();
+  private static final int STREAM_FETCH_SIZE = 500;
+  // Larger index results are cheaper to filter in SQL than to load through pin = ANY(?).
+  private static final int MAX_INDEXED_SEARCH_RESULTS = 5000;
+  // Phones and emails are collected by separate correlated subqueries instead of joining both
+  // tables at once, which would produce phones x emails rows per contact.
+  static final String CONTACT_COLUMNS =
+      "c.pin, "
+          + "c.name, "
+          + "c.surname, "
+          + "c.gender, "
+          + "c.version, "
+          + "ARRAY(SELECT p.phone FROM phones p WHERE p.pin = c.pin ORDER BY p.phone_id) AS phones, "
+          + "ARRAY(SELECT e.email FROM emails e WHERE e.pin = c.pin ORDER BY e.email_id) AS emails";
+  private static final String CONTACT_SELECT = "SELECT " + CONTACT_COLUMNS + " FROM contacts c";
+  // Every write to a contact, its phones or its emails moves the contact to a new version.
+  private static final String NEXT_VERSION = "version = nextval('contact_version_seq')";
+  // Phones are compared by PhoneKeys; rows the backfill has not keyed yet are compared as stored.
+  private static final String PHONE_MATCH = "(phone_key = ? OR (phone_key IS NULL AND phone = ?))";
 
   @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private NGramContactIndex searchIndex;
+  @Autowired private ContactPartitions partitions;
 
   public List<Contact> getAllContacts() {
-    String sql =
-        "SELECT "
-            + "c.pin, "
-            + "c.name, "
-            + "c.surname, "
-            + "c.gender, "
-            + "STRING_AGG(DISTINCT p.phone, ', ') AS phones, "
-            + "STRING_AGG(DISTINCT e.email, ', ') AS emails "
-            + "FROM contacts c "
-            + "LEFT JOIN phones p ON c.pin = p.pin "
-            + "LEFT JOIN emails e ON c.pin = e.pin "
-            + "GROUP BY c.pin, c.name, c.surname, c.gender";
-    return jdbcTemplate.query(sql, contractMapping);
+    return queryPartitions("");
   }
 
   public Contact getContactByPin(Integer pin) {
-    String sql =
-        "SELECT "
-            + "c.pin, c.name, c.surname, c.gender, "
-            + "STRING_AGG(DISTINCT pn.phone, ', ') AS phones, "
-            + "STRING_AGG(DISTINCT e.email, ', ') AS emails "
-            + "FROM contacts c "
-            + "LEFT JOIN phones pn ON c.pin = pn.pin "
-            + "LEFT JOIN emails e ON c.pin = e.pin "
-            + "WHERE c.pin = ? "
-            + "GROUP BY c.pin, c.name, c.surname, c.gender";
+    String sql = CONTACT_SELECT + " WHERE c.pin = ?";
 
     return jdbcTemplate.queryForObject(sql, contractMapping, pin);
   }
 
+  // Reads the contacts row only, without collecting phones and emails.
+  public Long getContactVersion(Integer pin) {
+    List<Long> versions =
+        jdbcTemplate.queryForList("SELECT version FROM contacts WHERE pin = ?", Long.class, pin);
+    return versions.isEmpty() ? null : versions.getFirst();
+  }
+
+  public ContactsVersion getContactsVersion(
+      String searchName, String searchSurname, Gender searchGender) {
+    String sql =
+        "SELECT count(*) AS count, COALESCE(max(c.version), 0) AS max_version, "
+            + "COALESCE(sum(c.version), 0) AS version_sum FROM contacts c"
+            + formKeysetCondition(searchName, searchSurname, searchGender, null);
+    return jdbcTemplate.queryForObject(
+        sql,
+        (rs, rowNum) ->
+            new ContactsVersion(
+                rs.getLong("count"), rs.getLong("max_version"), rs.getLong("version_sum")),
+        getProvidedRequestParams(searchName, searchSurname, searchGender).toArray());
+  }
+
+  public List<Contact> getContactsByPins(int[] pins) {
+    if (pins.length == 0) {
+      return new ArrayList<>();
+    }
+    String sql = CONTACT_SELECT + " WHERE c.pin = ANY(?) ORDER BY c.pin";
+    return jdbcTemplate.query(sql, contractMapping, (Object) pins);
+  }
+
+  // Served by phones_phone_key_idx; the same number may belong to several contacts.
+  public List<Contact> getContactsByPhone(String phone) {
+    String sql =
+        CONTACT_SELECT
+            + " WHERE c.pin IN (SELECT pin FROM phones WHERE "
+            + PHONE_MATCH
+            + ") ORDER BY c.pin";
+    return jdbcTemplate.query(sql, contractMapping, PhoneKeys.of(phone), phone);
+  }
+
+  // Addresses are matched case-insensitively, served by the expression index emails_email_idx.
+  public List<Contact> getContactsByEmail(String email) {
+    String sql =
+        CONTACT_SELECT
+            + " WHERE c.pin IN (SELECT e.pin FROM emails e WHERE lower(e.email) = lower(?))"
+            + " ORDER BY c.pin";
+    return jdbcTemplate.query(sql, contractMapping, email);
+  }
+
   public List<Contact> searchContactsByParameter(
       String searchName, String searchSurname, Gender searchGender) {
+    if (searchIndex.isReady()) {
+      int[] pins =
+          searchIndex.search(searchName, searchSurname, searchGender, MAX_INDEXED_SEARCH_RESULTS);
+      if (pins != null) {
+        return getContactsByPins(pins);
+      }
+    }
     String sqlMultipleSearch =
         formSqlQueryForMultipleParam(searchName, searchSurname, searchGender);
     List<Object> providedParams = getProvidedRequestParams(searchName, searchSurname, searchGender);
+
+    return queryPartitions(" WHERE " + sqlMultipleSearch, providedParams.toArray());
+  }
+
+  // Reads contacts in pin order. A partitioned contacts table is read one partition per query, in
+  // parallel; the phone and email subqueries are pruned to the matching partition as they run.
+  private List<Contact> queryPartitions(String condition, Object... params) {
+    String filterAndOrder = condition + " ORDER BY c.pin";
+    if (partitions.canFanOut()) {
+      return partitions.fanOut(
+          partition ->
+              jdbcTemplate.query(
+                  "SELECT " + CONTACT_COLUMNS + " FROM " + partition + " c" + filterAndOrder,
+                  contractMapping,
+                  params));
+    }
+    return jdbcTemplate.query(CONTACT_SELECT + filterAndOrder, contractMapping, params);
+  }
+
+  public List<ContactMatch> searchContactsByName(String query, NameSearchMode mode, int limit) {
+    String condition;
+    String pattern;
+    switch (mode) {
+      case PREFIX -> {
+        condition = "c.name ILIKE ? OR c.surname ILIKE ?";
+        pattern = escapeLikePattern(query) + "%";
+      }
+      case FUZZY -> {
+        condition = "c.name % ? OR c.surname % ?";
+        pattern = query;
+      }
+      default -> {
+        condition = "c.name ILIKE ? OR c.surname ILIKE ?";
+        pattern = "%" + escapeLikePattern(query) + "%";
+      }
+    }
     String sql =
         "SELECT "
-            + "c.pin, "
-            + "c.name, "
-            + "c.surname, "
-            + "c.gender, "
-            + "STRING_AGG(DISTINCT pn.phone, ', ') AS phones, "
-            + "STRING_AGG(DISTINCT e.email, ', ') AS emails "
-            + "FROM contacts c "
-            + "LEFT JOIN phones pn ON c.pin = pn.pin "
-            + "LEFT JOIN emails e ON c.pin = e.pin "
-            + "WHERE "
-            + sqlMultipleSearch
-            + " GROUP BY c.pin, c.name, c.surname, c.gender";
+            + CONTACT_COLUMNS
+            + ", GREATEST(similarity(c.name, ?), similarity(c.surname, ?)) AS score "
+            + "FROM contacts c WHERE "
+            + condition
+            + " ORDER BY score DESC, c.pin LIMIT ?";
+
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) -> new ContactMatch(contractMapping.mapRow(rs, rowNum), rs.getDouble("score")),
+        query,
+        query,
+        pattern,
+        pattern,
+        limit);
+  }
+
+  public List<Contact> getContactsPage(
+      String searchName, String searchSurname, Gender searchGender, Integer afterPin, int limit) {
+    List<Object> providedParams = getProvidedRequestParams(searchName, searchSurname, searchGender);
+    String sql =
+        CONTACT_SELECT
+            + formKeysetCondition(searchName, searchSurname, searchGender, afterPin)
+            + " ORDER BY c.pin LIMIT ?";
+    if (afterPin != null) {
+      providedParams.add(afterPin);
+    }
+    providedParams.add(limit);
 
     return jdbcTemplate.query(sql, contractMapping, providedParams.toArray());
   }
 
+  @Transactional(readOnly = true)
+  public void streamContacts(
+      String searchName, String searchSurname, Gender searchGender, Consumer<Contact> consumer) {
+    List<Object> providedParams = getProvidedRequestParams(searchName, searchSurname, searchGender);
+    String sql =
+        CONTACT_SELECT
+            + formKeysetCondition(searchName, searchSurname, searchGender, null)
+            + " ORDER BY c.pin";
+
+    // The PostgreSQL driver only honours the fetch size inside a transaction,
+    // otherwise it buffers the whole result set before returning the first row.
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(sql);
+          statement.setFetchSize(STREAM_FETCH_SIZE);
+          for (int i = 0; i < providedParams.size(); i++) {
+            statement.setObject(i + 1, providedParams.get(i));
+          }
+          return statement;
+        },
+        (RowCallbackHandler) rs -> consumer.accept(contractMapping.mapRow(rs, rs.getRow())));
+  }
+
   @Transactional
   public void contactCreation(
       Integer pin,
@@ -87,6 +227,54 @@ public class JdbcContactRepository implements ContactRepository {
     createContact(pin, name, surname, gender);
     createEmails(pin, emails);
     createPhones(pin, phones);
+    afterCommit(() -> searchIndex.put(pin, name, surname, gender));
+  }
+
+  @Transactional
+  public void batchContactCreation(List<Contact> contacts) {
+    String sqlContact =
+        "INSERT INTO contacts (pin, name, surname, gender) VALUES (?, ?, ?, CAST(? AS gender))";
+    jdbcTemplate.batchUpdate(
+        sqlContact,
+        contacts,
+        contacts.size(),
+        (ps, contact) -> {
+          ps.setObject(1, contact.getPin());
+          ps.setString(2, contact.getName());
+          ps.setString(3, contact.getSurname());
+          ps.setString(4, contact.getGender() != null ? contact.getGender().toString() : null);
+        });
+
+    List<Object[]> emailRows = new ArrayList<>();
+    List<Object[]> phoneRows = new ArrayList<>();
+    for (Contact contact : contacts) {
+      if (contact.getEmails() != null) {
+        for (String email : contact.getEmails()) {
+          emailRows.add(new Object[] {email, contact.getPin()});
+        }
+      }
+      if (contact.getPhones() != null) {
+        for (String phone : contact.getPhones()) {
+          phoneRows.add(new Object[] {phone, PhoneKeys.of(phone), contact.getPin()});
+        }
+      }
+    }
+    if (!emailRows.isEmpty()) {
+      jdbcTemplate.batchUpdate("INSERT INTO emails (email, pin) VALUES (?, ?)", emailRows);
+    }
+    if (!phoneRows.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO phones (phone, phone_key, pin) VALUES (?, ?, ?)", phoneRows);
+    }
+    afterCommit(
+        () ->
+            contacts.forEach(
+                contact ->
+                    searchIndex.put(
+                        contact.getPin(),
+                        contact.getName(),
+                        contact.getSurname(),
+                        contact.getGender())));
   }
 
   public void createContact(Integer pin, String name, String surname, Gender gender) {
@@ -102,21 +290,32 @@ public class JdbcContactRepository implements ContactRepository {
   }
 
   public void createPhones(Integer pin, ContactPhones phones) {
-    String sqlPhone = "INSERT INTO phones (phone, pin) VALUES (?, ?)";
-    if (phones != null) {
-      for (String phone : phones) {
-        jdbcTemplate.update(sqlPhone, phone, pin);
-      }
+    if (phones == null || phones.isEmpty()) {
+      return;
     }
+    String sql =
+        "INSERT INTO phones (phone, phone_key, pin) SELECT t.value, t.key, ? "
+            + "FROM unnest(?, ?) WITH ORDINALITY AS t(value, key, position) ORDER BY t.position";
+    jdbcTemplate.update(sql, pin, phones.toArray(String[]::new), PhoneKeys.ofAll(phones));
   }
 
   public void createEmails(Integer pin, ContactEmails emails) {
-    String sqlEmail = "INSERT INTO emails (email, pin) VALUES (?, ?)";
-    if (emails != null) {
-      for (String email : emails) {
-        jdbcTemplate.update(sqlEmail, email, pin);
-      }
+    insertValues("emails", "email", pin, emails);
+  }
+
+  // One statement for all values of a contact, inserted in list order.
+  private void insertValues(String table, String column, Integer pin, List<String> values) {
+    if (values == null || values.isEmpty()) {
+      return;
     }
+    String sql =
+        "INSERT INTO "
+            + table
+            + " ("
+            + column
+            + ", pin) SELECT t.value, ? FROM unnest(?) WITH ORDINALITY AS t(value, position) "
+            + "ORDER BY t.position";
+    jdbcTemplate.update(sql, pin, values.toArray(String[]::new));
   }
 
   public String deleteContactByPin(Integer pin) {
@@ -127,12 +326,48 @@ public class JdbcContactRepository implements ContactRepository {
     if (rowsAffected == 0) {
       return "No contact found with PIN: " + pin;
     } else {
+      afterCommit(() -> searchIndex.remove(pin));
       return "Contact with PIN " + pin + " deleted successfully.";
     }
   }
 
+  // Cascades to phones and emails; RETURNING tells deleted pins apart from missing ones.
+  public int[] deleteContactsByPins(int[] pins) {
+    if (pins.length == 0) {
+      return pins;
+    }
+    int[] deleted =
+        jdbcTemplate
+            .queryForList(
+                "DELETE FROM contacts WHERE pin = ANY(?) RETURNING pin",
+                Integer.class,
+                (Object) pins)
+            .stream()
+            .mapToInt(Integer::intValue)
+            .toArray();
+    afterCommit(
+        () -> {
+          for (int pin : deleted) {
+            searchIndex.remove(pin);
+          }
+        });
+    return deleted;
+  }
+
+  // With an expected version the contact row is claimed first, so the rest of the update runs
+  // under its lock and a concurrent writer makes the whole update fail instead of interleaving.
   @Transactional
-  public void updateContactDetails(Contact updatedContact, Contact updateRequest) {
+  public ContactChanges updateContactDetails(
+      Contact updatedContact, Contact updateRequest, Long expectedVersion) {
+    if (expectedVersion != null
+        && jdbcTemplate.update(
+                "UPDATE contacts SET " + NEXT_VERSION + " WHERE pin = ? AND version = ?",
+                updatedContact.getPin(),
+                expectedVersion)
+            == 0) {
+      throw new ContactVersionMismatchException(updatedContact.getPin());
+    }
+    ContactChanges changes = new ContactChanges();
     if (updateRequest.getName() != null
         || updateRequest.getSurname() != null
         || updateRequest.getGender() != null) {
@@ -141,129 +376,275 @@ public class JdbcContactRepository implements ContactRepository {
           updatedContact.getName(),
           updatedContact.getSurname(),
           updatedContact.getGender());
+      changes.setDetailsUpdated(true);
+      afterCommit(
+          () ->
+              searchIndex.put(
+                  updatedContact.getPin(),
+                  updatedContact.getName(),
+                  updatedContact.getSurname(),
+                  updatedContact.getGender()));
     }
     if (updateRequest.getEmails() != null) {
-      updateEmails(updatedContact.getPin(), updatedContact.getEmails());
+      applyValueDiff(
+          "emails",
+          "email",
+          updatedContact.getPin(),
+          updatedContact.getEmails(),
+          changes.getAddedEmails(),
+          changes.getRemovedEmails());
     }
     if (updateRequest.getPhones() != null) {
-      updatePhones(updatedContact.getPin(), updatedContact.getPhones());
+      applyPhoneDiff(
+          updatedContact.getPin(),
+          updatedContact.getPhones(),
+          changes.getAddedPhones(),
+          changes.getRemovedPhones());
     }
+    return changes;
   }
 
   public void updateContact(Integer pin, String name, String surname, Gender gender) {
     String sql =
-        "UPDATE contacts SET name = ?, surname = ?, gender = CAST(UPPER(?) AS gender) WHERE pin = ?";
-    jdbcTemplate.update(sql, name, surname, gender.toString(), pin);
+        "UPDATE contacts SET name = ?, surname = ?, gender = CAST(UPPER(?) AS gender), "
+            + NEXT_VERSION
+            + " WHERE pin = ?";
+    jdbcTemplate.update(sql, name, surname, gender != null ? gender.toString() : null, pin);
   }
 
-  public void updateEmails(Integer pin, List<String> emails) {
-    String deleteSql = "DELETE FROM emails WHERE pin = ?";
-    jdbcTemplate.update(deleteSql, pin);
-
-    String insertSql = "INSERT INTO emails (pin, email) VALUES (?, ?)";
-    for (String email : emails) {
-      jdbcTemplate.update(insertSql, pin, email);
-    }
+  // Deletes the stored values missing from the new list and inserts the new ones in a single
+  // statement; unchanged rows keep their ids and the version only moves if something changed.
+  private void applyValueDiff(
+      String table,
+      String column,
+      Integer pin,
+      List<String> values,
+      List<String> added,
+      List<String> removed) {
+    String sql =
+        "WITH removed AS (DELETE FROM "
+            + table
+            + " WHERE pin = ? AND "
+            + column
+            + " <> ALL(?) RETURNING "
+            + column
+            + "), added AS (INSERT INTO "
+            + table
+            + " (pin, "
+            + column
+            + ") SELECT ?, t.value FROM unnest(?) WITH ORDINALITY AS t(value, position) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM "
+            + table
+            + " v WHERE v.pin = ? AND v."
+            + column
+            + " = t.value) ORDER BY t.position RETURNING "
+            + column
+            + "), bumped AS (UPDATE contacts SET "
+            + NEXT_VERSION
+            + " WHERE pin = ? AND EXISTS (SELECT 1 FROM removed UNION ALL SELECT 1 FROM added)) "
+            + "SELECT 'removed' AS change, "
+            + column
+            + " AS value FROM removed UNION ALL SELECT 'added', "
+            + column
+            + " FROM added";
+    String[] distinctValues = new LinkedHashSet<>(values).toArray(String[]::new);
+    jdbcTemplate.query(
+        sql,
+        (RowCallbackHandler)
+            rs -> {
+              if (rs.getString("change").equals("added")) {
+                added.add(rs.getString("value"));
+              } else {
+                removed.add(rs.getString("value"));
+              }
+            },
+        pin,
+        distinctValues,
+        pin,
+        distinctValues,
+        pin,
+        pin);
   }
 
-  public void updatePhones(Integer pin, List<String> phones) {
-    String deleteSql = "DELETE FROM phones WHERE pin = ?";
-    jdbcTemplate.update(deleteSql, pin);
-
-    String insertSql = "INSERT INTO phones (pin, phone) VALUES (?, ?)";
+  // applyValueDiff by phone key: a number already stored in another format is left unchanged, and
+  // numbers of the request that share a key are inserted once. Unkeyed rows are replaced by keyed
+  // ones.
+  private void applyPhoneDiff(
+      Integer pin, List<String> phones, List<String> added, List<String> removed) {
+    Map<Long, String> byKey = new LinkedHashMap<>();
     for (String phone : phones) {
-      jdbcTemplate.update(insertSql, pin, phone);
+      byKey.putIfAbsent(PhoneKeys.of(phone), phone);
     }
+    String sql =
+        "WITH removed AS (DELETE FROM phones WHERE pin = ? AND COALESCE(phone_key, 0) <> ALL(?) "
+            + "RETURNING phone), added AS (INSERT INTO phones (pin, phone, phone_key) "
+            + "SELECT ?, t.value, t.key "
+            + "FROM unnest(?, ?) WITH ORDINALITY AS t(value, key, position) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM phones v WHERE v.pin = ? AND v.phone_key = t.key) "
+            + "ORDER BY t.position RETURNING phone), bumped AS (UPDATE contacts SET "
+            + NEXT_VERSION
+            + " WHERE pin = ? AND EXISTS (SELECT 1 FROM removed UNION ALL SELECT 1 FROM added)) "
+            + "SELECT 'removed' AS change, phone AS value FROM removed "
+            + "UNION ALL SELECT 'added', phone FROM added";
+    Long[] keys = byKey.keySet().toArray(Long[]::new);
+    jdbcTemplate.query(
+        sql,
+        (RowCallbackHandler)
+            rs -> {
+              if (rs.getString("change").equals("added")) {
+                added.add(rs.getString("value"));
+              } else {
+                removed.add(rs.getString("value"));
+              }
+            },
+        pin,
+        keys,
+        pin,
+        byKey.values().toArray(String[]::new),
+        keys,
+        pin,
+        pin);
   }
 
-  public void updateContactAttribute(
-      Integer pin, String attribute, String newValue, String oldValue) {
+  public boolean updateContactAttribute(
+      Integer pin, String attribute, String newValue, String oldValue, Long expectedVersion) {
     if (attribute.equals("name") || attribute.equals("surname") || attribute.equals("gender")) {
-      updateAttribute(pin, attribute, newValue);
+      return updateAttribute(pin, attribute, newValue, expectedVersion);
     } else {
-      updateAttribute(pin, attribute, newValue, oldValue);
+      return updateAttribute(pin, attribute, newValue, oldValue, expectedVersion);
     }
   }
 
-  public void updateAttribute(Integer pin, String attribute, String newValue) {
-    String sql = "";
-    switch (attribute) {
-      case "gender" ->
-          sql = "UPDATE contacts SET " + attribute + " = CAST(UPPER(?) AS gender) WHERE pin = ?";
-      case "name", "surname" -> sql = "UPDATE contacts SET " + attribute + " = ? WHERE pin = ?";
+  public boolean updateAttribute(
+      Integer pin, String attribute, String newValue, Long expectedVersion) {
+    String assignment =
+        switch (attribute) {
+          case "gender" -> "gender = CAST(UPPER(?) AS gender)";
+          case "name", "surname" -> attribute + " = ?";
+          default -> throw new IllegalArgumentException("Invalid attribute type");
+        };
+    String sql = "UPDATE contacts SET " + assignment + ", " + NEXT_VERSION + " WHERE pin = ?";
+    int rows =
+        expectedVersion == null
+            ? jdbcTemplate.update(sql, newValue, pin)
+            : jdbcTemplate.update(sql + " AND version = ?", newValue, pin, expectedVersion);
+    if (rows == 0) {
+      return false;
     }
-    jdbcTemplate.update(sql, newValue, pin);
-  }
-
-  @Transactional(rollbackFor = SQLException.class)
-  public void updateAttribute(Integer pin, String attribute, String newValue, String oldValue) {
-    switch (attribute) {
-      case "email" -> {
-        if (oldValue != null) {
-          String findEmailQuery = "SELECT email_id FROM emails WHERE email = ? AND pin = ?";
-          Integer emailId =
-              jdbcTemplate.queryForObject(findEmailQuery, Integer.class, oldValue, pin);
-          updateEmail(emailId, newValue);
-        } else {
-          addEmail(pin, newValue);
-        }
+    afterCommit(() -> searchIndex.updateAttribute(pin, attribute, newValue));
+    return true;
+  }
+
+  // Every branch is one statement: "not found" comes from the affected row count.
+  public boolean updateAttribute(
+      Integer pin, String attribute, String newValue, String oldValue, Long expectedVersion) {
+    String table =
+        switch (attribute) {
+          case "email" -> "emails";
+          case "phone" -> "phones";
+          default -> throw new IllegalArgumentException("Invalid attribute type");
+        };
+    boolean phone = table.equals("phones");
+    List<Object> params = new ArrayList<>();
+    String change;
+    if (oldValue == null) {
+      change =
+          "INSERT INTO "
+              + table
+              + " (pin, "
+              + attribute
+              + (phone ? ", phone_key) SELECT pin, ?, ?" : ") SELECT pin, ?")
+              + " FROM contacts WHERE pin = ?"
+              + versionCheck(expectedVersion);
+      params.add(newValue);
+      if (phone) {
+        params.add(PhoneKeys.of(newValue));
       }
-      case "phone" -> {
-        if (oldValue != null) {
-          String findPhoneQuery = "SELECT phone_id FROM phones WHERE phone = ? AND pin = ?";
-          Integer phoneId =
-              jdbcTemplate.queryForObject(findPhoneQuery, Integer.class, oldValue, pin);
-          updatePhone(phoneId, newValue);
-        } else {
-          addPhone(pin, newValue);
-        }
+      params.add(pin);
+    } else {
+      change =
+          "UPDATE "
+              + table
+              + " SET "
+              + attribute
+              + (phone ? " = ?, phone_key = ?" : " = ?")
+              + " WHERE (pin, "
+              + attribute
+              + "_id) = "
+              + firstValueKey(table, attribute);
+      params.add(newValue);
+      if (phone) {
+        params.add(PhoneKeys.of(newValue));
+      }
+      params.add(pin);
+      Collections.addAll(params, matchParams(table, oldValue));
+      if (expectedVersion != null) {
+        change +=
+            " AND pin IN (SELECT pin FROM contacts WHERE pin = ?"
+                + versionCheck(expectedVersion)
+                + ")";
+        params.add(pin);
       }
     }
+    if (expectedVersion != null) {
+      params.add(expectedVersion);
+    }
+    return jdbcTemplate.update(withVersionBump(change), params.toArray()) > 0;
   }
 
-  public void deleteEmail(Integer pin, String email) {
-    String findEmailQuery = "SELECT email_id FROM emails WHERE email = ? AND pin = ?";
-    Integer emailId = jdbcTemplate.queryForObject(findEmailQuery, Integer.class, email, pin);
-
-    if (emailId != null) {
-      String deleteEmailQuery = "DELETE FROM emails WHERE email_id = ?";
-      jdbcTemplate.update(deleteEmailQuery, emailId);
-      log.info("Email deleted successfully for Pin: {}", pin);
-    } else {
-      log.info("No email found for the specified Pin: {}", pin);
-    }
+  public boolean deleteEmail(Integer pin, String email) {
+    String sql =
+        withVersionBump(
+            "DELETE FROM emails WHERE (pin, email_id) = " + firstValueKey("emails", "email"));
+    boolean deleted = jdbcTemplate.update(sql, pin, email) > 0;
+    log.info("Email {} for Pin: {}", deleted ? "deleted" : "not found", pin);
+    return deleted;
   }
 
-  public void deletePhone(Integer pin, String phone) {
-    String findPhoneQuery = "SELECT phone_id FROM phones WHERE phone = ? AND pin = ?";
-    Integer phoneId = jdbcTemplate.queryForObject(findPhoneQuery, Integer.class, phone, pin);
-    if (phoneId != null) {
-      String deletePhoneQuery = "DELETE FROM phones WHERE phone_id = ?";
-      jdbcTemplate.update(deletePhoneQuery, phoneId);
-      log.info("Phone deleted successfully for Pin: {}", pin);
-    } else {
-      log.info("No phone found for the specified Pin: {}", pin);
-    }
+  public boolean deletePhone(Integer pin, String phone) {
+    String sql =
+        withVersionBump(
+            "DELETE FROM phones WHERE (pin, phone_id) = " + firstValueKey("phones", "phone"));
+    boolean deleted = jdbcTemplate.update(sql, pin, PhoneKeys.of(phone), phone) > 0;
+    log.info("Phone {} for Pin: {}", deleted ? "deleted" : "not found", pin);
+    return deleted;
   }
 
-  public void updatePhone(Integer phoneId, String newValue) {
-    String sql = "UPDATE phones SET phone = ? WHERE phone_id = ?";
-    jdbcTemplate.update(sql, newValue, phoneId);
+  // Runs a phone or email write and moves the contact to a new version in the same statement.
+  // The affected row count is the number of contacts whose values changed.
+  private static String withVersionBump(String change) {
+    return "WITH changed AS ("
+        + change
+        + " RETURNING pin) UPDATE contacts SET "
+        + NEXT_VERSION
+        + " WHERE pin IN (SELECT pin FROM changed)";
   }
 
-  public void updateEmail(Integer emailId, String newValue) {
-    String sql = "UPDATE emails SET email = ? WHERE email_id = ?";
-    jdbcTemplate.update(sql, newValue, emailId);
+  // The contact row is locked so a concurrent update either commits first and fails the check,
+  // or waits until this statement has committed.
+  private static String versionCheck(Long expectedVersion) {
+    return expectedVersion == null ? "" : " AND version = ? FOR UPDATE";
   }
 
-  public void addPhone(Integer pin, String newValue) {
-    String sql = "INSERT INTO phones (pin, phone) VALUES (?, ?)";
-    jdbcTemplate.update(sql, pin, newValue);
+  // Selects a single row even when the contact has the same value twice. The whole primary key is
+  // returned, so a hash-partitioned table is only searched in the partition of the contact.
+  private static String firstValueKey(String table, String column) {
+    return "(SELECT pin, "
+        + column
+        + "_id FROM "
+        + table
+        + " WHERE pin = ? AND "
+        + (table.equals("phones") ? PHONE_MATCH : column + " = ?")
+        + " ORDER BY "
+        + column
+        + "_id LIMIT 1)";
   }
 
-  public void addEmail(Integer pin, String newValue) {
-    String sql = "INSERT INTO emails (pin, email) VALUES (?, ?)";
-    jdbcTemplate.update(sql, pin, newValue);
+  // Parameters of the value condition in firstValueKey.
+  private static Object[] matchParams(String table, String value) {
+    return table.equals("phones")
+        ? new Object[] {PhoneKeys.of(value), value}
+        : new Object[] {value};
   }
 
   private List<Object> getProvidedRequestParams(
@@ -281,7 +662,7 @@ public class JdbcContactRepository implements ContactRepository {
     return params;
   }
 
-  private String formSqlQueryForMultipleParam(
+  static String formSqlQueryForMultipleParam(
       String searchName, String searchSurname, Gender searchGender) {
     StringBuilder sql = new StringBuilder();
 
@@ -302,4 +683,39 @@ public class JdbcContactRepository implements ContactRepository {
     }
     return sql.toString().trim();
   }
+
+  // Index updates wait for the commit so a rolled back write never becomes searchable.
+  private void afterCommit(Runnable indexUpdate) {
+    if (!searchIndex.isEnabled()) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              indexUpdate.run();
+            }
+          });
+    } else {
+      indexUpdate.run();
+    }
+  }
+
+  private static String escapeLikePattern(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private String formKeysetCondition(
+      String searchName, String searchSurname, Gender searchGender, Integer afterPin) {
+    StringBuilder sql =
+        new StringBuilder(formSqlQueryForMultipleParam(searchName, searchSurname, searchGender));
+    if (afterPin != null) {
+      if (!sql.isEmpty()) {
+        sql.append(" AND ");
+      }
+      sql.append("c.pin > ?");
+    }
+    return sql.isEmpty() ? "" : " WHERE " + sql;
+  }
 }
@@ -0,0 +1,101 @@
+package com.example.AddressBook.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@code phones.phone_key} for rows written before the column existed, and for phones merged
+ * by the CSV importer, whose set-based SQL does not compute keys. Rows are keyed in batches of
+ * {@code addressbook.phone-key.backfill-batch-size} in separate short transactions, so the table is
+ * never locked as a whole. Until a row is keyed, lookups still find it by its stored text.
+ */
+@Component
+public class PhoneKeyBackfill {
+
+  private static final Logger log = LoggerFactory.getLogger(PhoneKeyBackfill.class);
+  private static final String SELECT_UNKEYED =
+      "SELECT phone_id, phone FROM phones "
+          + "WHERE phone_key IS NULL AND phone_id > ? ORDER BY phone_id LIMIT ?";
+  // A phone changed in the meantime was keyed by its writer and is left alone.
+  private static final String UPDATE_KEYS =
+      "UPDATE phones p SET phone_key = v.key "
+          + "FROM unnest(?, ?, ?) AS v(id, phone, key) "
+          + "WHERE p.phone_id = v.id AND p.phone = v.phone AND p.phone_key IS NULL";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean enabled;
+  private final int batchSize;
+
+  public PhoneKeyBackfill(
+      JdbcTemplate jdbcTemplate,
+      @Value("${addressbook.phone-key.backfill-enabled:true}") boolean enabled,
+      @Value("${addressbook.phone-key.backfill-batch-size:10000}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    backfillAsync();
+  }
+
+  public void backfillAsync() {
+    if (!enabled) {
+      return;
+    }
+    Thread.ofVirtual().name("phone-key-backfill").start(this::runBackfill);
+  }
+
+  private void runBackfill() {
+    long start = System.currentTimeMillis();
+    try {
+      long keyed = backfill();
+      if (keyed > 0) {
+        log.info("Keyed {} phones in {} ms", keyed, System.currentTimeMillis() - start);
+      }
+    } catch (RuntimeException e) {
+      log.error("Phone key backfill failed, unkeyed phones are matched by text", e);
+    }
+  }
+
+  /**
+   * Keys every phone without a key and returns how many were keyed. Runs are serialized; phones
+   * without any digit cannot be keyed and are skipped.
+   */
+  public synchronized long backfill() {
+    long keyed = 0;
+    int afterId = 0;
+    while (true) {
+      List<Integer> ids = new ArrayList<>(batchSize);
+      List<String> phones = new ArrayList<>(batchSize);
+      jdbcTemplate.query(
+          SELECT_UNKEYED,
+          (RowCallbackHandler)
+              rs -> {
+                ids.add(rs.getInt("phone_id"));
+                phones.add(rs.getString("phone"));
+              },
+          afterId,
+          batchSize);
+      if (ids.isEmpty()) {
+        return keyed;
+      }
+      keyed +=
+          jdbcTemplate.update(
+              UPDATE_KEYS,
+              ids.toArray(Integer[]::new),
+              phones.toArray(String[]::new),
+              PhoneKeys.ofAll(phones));
+      afterId = ids.getLast();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.AddressBook.repository;
+
+import java.util.List;
+
+/**
+ * Canonical numeric key of a phone number, stored in {@code phones.phone_key}. The key is made of
+ * the digits alone, so "+1 (555) 123-4567" and "15551234567" share a key, and phones are matched by
+ * comparing keys instead of text. A 1 is put in front of the digits so leading zeros survive the
+ * conversion to a number: "0997899621" and "997899621" keep different keys.
+ */
+public final class PhoneKeys {
+
+  // Digits that still fit in a long behind the leading 1.
+  private static final int MAX_DIGITS = 18;
+
+  private PhoneKeys() {}
+
+  /** Returns null when the value has no digits or more than fit in a key. */
+  public static Long of(String phone) {
+    if (phone == null) {
+      return null;
+    }
+    long key = 1;
+    int digits = 0;
+    for (int i = 0; i < phone.length(); i++) {
+      char c = phone.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (++digits > MAX_DIGITS) {
+          return null;
+        }
+        key = key * 10 + (c - '0');
+      }
+    }
+    return digits == 0 ? null : key;
+  }
+
+  public static Long[] ofAll(List<String> phones) {
+    return phones.stream().map(PhoneKeys::of).toArray(Long[]::new);
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.AddressBook.repository;
+
+import com.example.AddressBook.model.CsvImportReport;
+import com.example.AddressBook.repository.search.ContactSearchIndexLoader;
+import java.io.IOException;
+import java.io.InputStream;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Imports contacts from CSV with the PostgreSQL COPY protocol.
+ *
+ * <p>Expected columns are {@code pin,name,surname,gender,phones,emails} with a header row. Phones
+ * and emails hold several values separated by {@code ;}. Rows are streamed into a temporary staging
+ * table and merged into {@code contacts}, {@code phones} and {@code emails} with set-based SQL.
+ * Contacts whose PIN already exists are skipped together with their phones and emails. Phone keys
+ * are filled in by {@link PhoneKeyBackfill} after the import commits.
+ */
+@Repository
+public class PostgresCopyContactImporter {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresCopyContactImporter.class);
+
+  private static final String CREATE_STAGING_TABLE =
+      "CREATE TEMP TABLE contacts_import "
+          + "(pin INT, name TEXT, surname TEXT, gender TEXT, phones TEXT, emails TEXT) "
+          + "ON COMMIT DROP";
+  private static final String CREATE_CREATED_PINS_TABLE =
+      "CREATE TEMP TABLE contacts_import_created (pin INT PRIMARY KEY) ON COMMIT DROP";
+  private static final String COPY_INTO_STAGING =
+      "COPY contacts_import (pin, name, surname, gender, phones, emails) "
+          + "FROM STDIN WITH (FORMAT csv, HEADER true)";
+  private static final String MERGE_CONTACTS =
+      "WITH created AS ("
+          + "INSERT INTO contacts (pin, name, surname, gender) "
+          + "SELECT DISTINCT ON (pin) pin, name, surname, "
+          + "CAST(NULLIF(UPPER(TRIM(gender)), '') AS gender) "
+          + "FROM contacts_import WHERE pin IS NOT NULL ORDER BY pin "
+          + "ON CONFLICT (pin) DO NOTHING RETURNING pin) "
+          + "INSERT INTO contacts_import_created SELECT pin FROM created";
+  private static final String MERGE_PHONES =
+      "INSERT INTO phones (phone, pin) "
+          + "SELECT DISTINCT TRIM(p.phone), i.pin FROM contacts_import i "
+          + "JOIN contacts_import_created c ON c.pin = i.pin "
+          + "CROSS JOIN LATERAL unnest(string_to_array(i.phones, ';')) AS p(phone) "
+          + "WHERE TRIM(p.phone) <> ''";
+  private static final String MERGE_EMAILS =
+      "INSERT INTO emails (email, pin) "
+          + "SELECT DISTINCT TRIM(e.email), i.pin FROM contacts_import i "
+          + "JOIN contacts_import_created c ON c.pin = i.pin "
+          + "CROSS JOIN LATERAL unnest(string_to_array(i.emails, ';')) AS e(email) "
+          + "WHERE TRIM(e.email) <> ''";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private ContactSearchIndexLoader searchIndexLoader;
+  @Autowired private PhoneKeyBackfill phoneKeyBackfill;
+
+  @Transactional
+  public CsvImportReport importCsv(InputStream csv) {
+    jdbcTemplate.execute(CREATE_STAGING_TABLE);
+    jdbcTemplate.execute(CREATE_CREATED_PINS_TABLE);
+
+    CsvImportReport report = new CsvImportReport();
+    report.setRowsRead(
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                connection -> {
+                  try {
+                    return connection
+                        .unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(COPY_INTO_STAGING, csv);
+                  } catch (IOException e) {
+                    throw new DataAccessResourceFailureException(
+                        "Failed to read CSV import stream", e);
+                  }
+                }));
+
+    int distinctPins =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT pin) FROM contacts_import", Integer.class);
+    report.setContactsCreated(jdbcTemplate.update(MERGE_CONTACTS));
+    report.setContactsSkipped(distinctPins - report.getContactsCreated());
+    report.setPhonesCreated(jdbcTemplate.update(MERGE_PHONES));
+    report.setEmailsCreated(jdbcTemplate.update(MERGE_EMAILS));
+
+    if (report.getContactsCreated() > 0) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              searchIndexLoader.rebuildAsync();
+              if (report.getPhonesCreated() > 0) {
+                phoneKeyBackfill.backfillAsync();
+              }
+            }
+          });
+    }
+
+    log.info(
+        "CSV import read {} rows, created {} contacts",
+        report.getRowsRead(),
+        report.getContactsCreated());
+    return report;
+  }
+}
@@ -0,0 +1,161 @@
+package com.example.AddressBook.repository.cache;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactChanges;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.ContactsVersion;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.NameSearchMode;
+import com.example.AddressBook.repository.ContactRepository;
+import com.example.AddressBook.repository.JdbcContactRepository;
+import io.micrometer.core.annotation.Timed;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+@Primary
+@Repository
+@Timed("addressbook.repository")
+public class CachingContactRepository implements ContactRepository {
+
+  private final JdbcContactRepository delegate;
+  private final ContactCache contactCache;
+
+  public CachingContactRepository(JdbcContactRepository delegate, ContactCache contactCache) {
+    this.delegate = delegate;
+    this.contactCache = contactCache;
+  }
+
+  public List<Contact> getAllContacts() {
+    return delegate.getAllContacts();
+  }
+
+  public Contact getContactByPin(Integer pin) {
+    return contactCache.get(pin, delegate::getContactByPin);
+  }
+
+  // Always read from the database: the cache is only invalidated by writes of this instance, so a
+  // cached version could answer 304 for a contact another instance has changed. A cached copy
+  // found to be older is dropped, so the body that follows is current as well.
+  public Long getContactVersion(Integer pin) {
+    Long version = delegate.getContactVersion(pin);
+    Long cachedVersion = contactCache.getVersion(pin);
+    if (cachedVersion != null && !cachedVersion.equals(version)) {
+      contactCache.invalidate(pin);
+    }
+    return version;
+  }
+
+  public ContactsVersion getContactsVersion(
+      String searchName, String searchSurname, Gender searchGender) {
+    return delegate.getContactsVersion(searchName, searchSurname, searchGender);
+  }
+
+  public List<Contact> getContactsByPins(int[] pins) {
+    return contactCache.getAll(pins, delegate::getContactsByPins);
+  }
+
+  public List<Contact> getContactsByPhone(String phone) {
+    return delegate.getContactsByPhone(phone);
+  }
+
+  public List<Contact> getContactsByEmail(String email) {
+    return delegate.getContactsByEmail(email);
+  }
+
+  public List<Contact> searchContactsByParameter(
+      String searchName, String searchSurname, Gender searchGender) {
+    return delegate.searchContactsByParameter(searchName, searchSurname, searchGender);
+  }
+
+  public List<ContactMatch> searchContactsByName(String query, NameSearchMode mode, int limit) {
+    return delegate.searchContactsByName(query, mode, limit);
+  }
+
+  public List<Contact> getContactsPage(
+      String searchName, String searchSurname, Gender searchGender, Integer afterPin, int limit) {
+    return delegate.getContactsPage(searchName, searchSurname, searchGender, afterPin, limit);
+  }
+
+  public void streamContacts(
+      String searchName, String searchSurname, Gender searchGender, Consumer<Contact> consumer) {
+    delegate.streamContacts(searchName, searchSurname, searchGender, consumer);
+  }
+
+  public void contactCreation(
+      Integer pin,
+      String name,
+      String surname,
+      Gender gender,
+      ContactPhones phones,
+      ContactEmails emails) {
+    try {
+      delegate.contactCreation(pin, name, surname, gender, phones, emails);
+    } finally {
+      contactCache.invalidate(pin);
+    }
+  }
+
+  public void batchContactCreation(List<Contact> contacts) {
+    try {
+      delegate.batchContactCreation(contacts);
+    } finally {
+      contacts.forEach(contact -> contactCache.invalidate(contact.getPin()));
+    }
+  }
+
+  public String deleteContactByPin(Integer pin) {
+    try {
+      return delegate.deleteContactByPin(pin);
+    } finally {
+      contactCache.invalidate(pin);
+    }
+  }
+
+  public int[] deleteContactsByPins(int[] pins) {
+    try {
+      return delegate.deleteContactsByPins(pins);
+    } finally {
+      for (int pin : pins) {
+        contactCache.invalidate(pin);
+      }
+    }
+  }
+
+  public ContactChanges updateContactDetails(
+      Contact updatedContact, Contact updateRequest, Long expectedVersion) {
+    try {
+      return delegate.updateContactDetails(updatedContact, updateRequest, expectedVersion);
+    } finally {
+      contactCache.invalidate(updatedContact.getPin());
+    }
+  }
+
+  public boolean deleteEmail(Integer pin, String email) {
+    try {
+      return delegate.deleteEmail(pin, email);
+    } finally {
+      contactCache.invalidate(pin);
+    }
+  }
+
+  public boolean deletePhone(Integer pin, String phone) {
+    try {
+      return delegate.deletePhone(pin, phone);
+    } finally {
+      contactCache.invalidate(pin);
+    }
+  }
+
+  public boolean updateContactAttribute(
+      Integer pin, String attribute, String newValue, String oldValue, Long expectedVersion) {
+    try {
+      return delegate.updateContactAttribute(pin, attribute, newValue, oldValue, expectedVersion);
+    } finally {
+      contactCache.invalidate(pin);
+    }
+  }
+}
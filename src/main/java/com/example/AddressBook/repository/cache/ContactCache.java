@@ -0,0 +1,102 @@
+package com.example.AddressBook.repository.cache;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactCacheStats;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ContactCache {
+
+  private final Cache<Integer, Contact> cache;
+
+  public ContactCache(
+      @Value("${addressbook.cache.max-size:10000}") long maxSize,
+      @Value("${addressbook.cache.ttl:10m}") Duration ttl) {
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+  }
+
+  // Callers get their own copy because ContactService mutates the contact it loads before
+  // writing it back, and a failed write must not leave the mutated instance in the cache.
+  public Contact get(Integer pin, Function<Integer, Contact> loader) {
+    return copyOf(cache.get(pin, loader));
+  }
+
+  // Cached pins are answered from memory and the rest are loaded with a single loader call.
+  // Pins the loader does not return are left out and not cached.
+  public List<Contact> getAll(int[] pins, Function<int[], List<Contact>> loader) {
+    Map<Integer, Contact> contacts =
+        cache.getAll(
+            Arrays.stream(pins).boxed().toList(),
+            missing -> {
+              Map<Integer, Contact> loaded = new HashMap<>();
+              int[] missingPins = missing.stream().mapToInt(Integer::intValue).toArray();
+              for (Contact contact : loader.apply(missingPins)) {
+                loaded.put(contact.getPin(), contact);
+              }
+              return loaded;
+            });
+    return contacts.values().stream().map(ContactCache::copyOf).toList();
+  }
+
+  public Long getVersion(Integer pin) {
+    Contact contact = cache.getIfPresent(pin);
+    return contact != null ? contact.getVersion() : null;
+  }
+
+  public void invalidate(Integer pin) {
+    if (pin != null) {
+      cache.invalidate(pin);
+    }
+  }
+
+  public Cache<Integer, Contact> nativeCache() {
+    return cache;
+  }
+
+  public ContactCacheStats stats() {
+    CacheStats stats = cache.stats();
+    ContactCacheStats contactCacheStats = new ContactCacheStats();
+    contactCacheStats.setSize(cache.estimatedSize());
+    contactCacheStats.setHitCount(stats.hitCount());
+    contactCacheStats.setMissCount(stats.missCount());
+    contactCacheStats.setEvictionCount(stats.evictionCount());
+    contactCacheStats.setHitRate(stats.hitRate());
+    return contactCacheStats;
+  }
+
+  private static Contact copyOf(Contact contact) {
+    if (contact == null) {
+      return null;
+    }
+    Contact copy = new Contact();
+    copy.setPin(contact.getPin());
+    copy.setName(contact.getName());
+    copy.setSurname(contact.getSurname());
+    copy.setGender(contact.getGender());
+    copy.setVersion(contact.getVersion());
+    if (contact.getPhones() != null) {
+      ContactPhones phones = new ContactPhones();
+      phones.addAll(contact.getPhones());
+      copy.setPhones(phones);
+    }
+    if (contact.getEmails() != null) {
+      ContactEmails emails = new ContactEmails();
+      emails.addAll(contact.getEmails());
+      copy.setEmails(emails);
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.AddressBook.repository.mappers;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.Gender;
+import io.r2dbc.spi.Readable;
+import java.util.Collections;
+import java.util.List;
+
+/** R2DBC counterpart of {@link ContactRowMapper}. */
+public final class ContactReadableMapper {
+
+  private ContactReadableMapper() {}
+
+  public static Contact map(Readable row) {
+    Contact contact = new Contact();
+
+    contact.setPin(row.get("pin", Integer.class));
+    contact.setName(row.get("name", String.class));
+    contact.setSurname(row.get("surname", String.class));
+
+    String gender = row.get("gender", String.class);
+    if (gender != null) {
+      contact.setGender(Gender.valueOf(gender));
+    }
+
+    contact.setVersion(row.get("version", Long.class));
+
+    ContactPhones phones = new ContactPhones();
+    addArrayValues(row.get("phones", String[].class), phones);
+    contact.setPhones(phones);
+
+    ContactEmails emails = new ContactEmails();
+    addArrayValues(row.get("emails", String[].class), emails);
+    contact.setEmails(emails);
+
+    return contact;
+  }
+
+  private static void addArrayValues(String[] values, List<String> target) {
+    if (values != null) {
+      Collections.addAll(target, values);
+    }
+  }
+}
@@ -4,8 +4,11 @@ import com.example.AddressBook.model.Contact;
 import com.example.AddressBook.model.ContactEmails;
 import com.example.AddressBook.model.ContactPhones;
 import com.example.AddressBook.model.Gender;
+import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
 import org.springframework.jdbc.core.RowMapper;
 
 public class ContactRowMapper implements RowMapper<Contact> {
@@ -22,18 +25,23 @@ public class ContactRowMapper implements RowMapper<Contact> {
       contact.setGender(Gender.valueOf(rs.getString("gender")));
     }
 
+    contact.setVersion(rs.getLong("version"));
+
     ContactPhones phones = new ContactPhones();
-    if (rs.getString("phones") != null) {
-      phones.add(rs.getString("phones"));
-    }
+    addArrayValues(rs.getArray("phones"), phones);
     contact.setPhones(phones);
 
     ContactEmails emails = new ContactEmails();
-    if (rs.getString("emails") != null) {
-      emails.add(rs.getString("emails"));
-    }
+    addArrayValues(rs.getArray("emails"), emails);
     contact.setEmails(emails);
 
     return contact;
   }
+
+  private static void addArrayValues(Array array, List<String> target) throws SQLException {
+    if (array != null) {
+      Collections.addAll(target, (String[]) array.getArray());
+      array.free();
+    }
+  }
 }
@@ -0,0 +1,59 @@
+package com.example.AddressBook.repository.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * R2DBC beans for the reactive mode. Spring Boot's R2DBC auto-configuration is excluded and the
+ * pool is not a bean, because a ConnectionFactory bean would switch off the JDBC DataSource and its
+ * transaction manager, which Flyway and the JDBC repositories still use.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcConfig {
+
+  private final ConnectionPool connectionPool;
+
+  public R2dbcConfig(
+      @Value("${addressbook.r2dbc.url}") String url,
+      @Value("${spring.datasource.username}") String username,
+      @Value("${spring.datasource.password}") String password,
+      @Value("${addressbook.r2dbc.pool.max-size:10}") int maxSize) {
+    ConnectionFactoryOptions options =
+        ConnectionFactoryOptions.parse(url)
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+    this.connectionPool =
+        new ConnectionPool(
+            ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+  }
+
+  @Bean
+  public DatabaseClient databaseClient() {
+    return DatabaseClient.create(connectionPool);
+  }
+
+  @Bean
+  public TransactionalOperator r2dbcTransactionalOperator() {
+    return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+  }
+
+  @PreDestroy
+  public void closeConnectionPool() {
+    connectionPool.dispose();
+  }
+}
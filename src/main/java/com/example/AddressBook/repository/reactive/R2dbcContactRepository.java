@@ -0,0 +1,482 @@
+package com.example.AddressBook.repository.reactive;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.NameSearchMode;
+import com.example.AddressBook.repository.PhoneKeys;
+import com.example.AddressBook.repository.mappers.ContactReadableMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcContactRepository implements ReactiveContactRepository {
+
+  private static final int STREAM_FETCH_SIZE = 500;
+  // The gender enum is read as text, the driver has no codec for custom enum types.
+  private static final String CONTACT_COLUMNS =
+      "c.pin, "
+          + "c.name, "
+          + "c.surname, "
+          + "CAST(c.gender AS TEXT) AS gender, "
+          + "c.version, "
+          + "ARRAY(SELECT p.phone FROM phones p WHERE p.pin = c.pin ORDER BY p.phone_id) AS phones, "
+          + "ARRAY(SELECT e.email FROM emails e WHERE e.pin = c.pin ORDER BY e.email_id) AS emails";
+  private static final String CONTACT_SELECT = "SELECT " + CONTACT_COLUMNS + " FROM contacts c";
+  // Same versioning as JdbcContactRepository, so ETags stay valid whichever mode wrote last.
+  private static final String NEXT_VERSION = "version = nextval('contact_version_seq')";
+
+  private final DatabaseClient databaseClient;
+  private final TransactionalOperator transactionalOperator;
+
+  public R2dbcContactRepository(
+      DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+    this.databaseClient = databaseClient;
+    this.transactionalOperator = transactionalOperator;
+  }
+
+  public Flux<Contact> getAllContacts() {
+    return databaseClient
+        .sql(CONTACT_SELECT + " ORDER BY c.pin")
+        .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+        .map(ContactReadableMapper::map)
+        .all();
+  }
+
+  public Mono<Contact> getContactByPin(Integer pin) {
+    return databaseClient
+        .sql(CONTACT_SELECT + " WHERE c.pin = :pin")
+        .bind("pin", pin)
+        .map(ContactReadableMapper::map)
+        .one();
+  }
+
+  public Flux<Contact> getContactsByPins(Integer[] pins) {
+    return databaseClient
+        .sql(CONTACT_SELECT + " WHERE c.pin = ANY(:pins) ORDER BY c.pin")
+        .bind("pins", pins)
+        .map(ContactReadableMapper::map)
+        .all();
+  }
+
+  public Flux<Contact> getContactsByPhone(String phone) {
+    GenericExecuteSpec spec =
+        databaseClient
+            .sql(
+                CONTACT_SELECT
+                    + " WHERE c.pin IN (SELECT pin FROM phones WHERE "
+                    + phoneMatch("phone")
+                    + ") ORDER BY c.pin")
+            .bind("phone", phone);
+    return bindPhoneKey(spec, "phone", phone).map(ContactReadableMapper::map).all();
+  }
+
+  public Flux<Contact> getContactsByEmail(String email) {
+    return databaseClient
+        .sql(
+            CONTACT_SELECT
+                + " WHERE c.pin IN"
+                + " (SELECT e.pin FROM emails e WHERE lower(e.email) = lower(:email))"
+                + " ORDER BY c.pin")
+        .bind("email", email)
+        .map(ContactReadableMapper::map)
+        .all();
+  }
+
+  public Flux<Contact> searchContactsByParameter(
+      String searchName, String searchSurname, Gender searchGender) {
+    String sql =
+        CONTACT_SELECT
+            + formWhereClause(searchName, searchSurname, searchGender, null)
+            + " ORDER BY c.pin";
+    return bindSearchParams(databaseClient.sql(sql), searchName, searchSurname, searchGender)
+        .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+        .map(ContactReadableMapper::map)
+        .all();
+  }
+
+  public Flux<ContactMatch> searchContactsByName(String query, NameSearchMode mode, int limit) {
+    String condition;
+    String pattern;
+    switch (mode) {
+      case PREFIX -> {
+        condition = "c.name ILIKE :pattern OR c.surname ILIKE :pattern";
+        pattern = escapeLikePattern(query) + "%";
+      }
+      case FUZZY -> {
+        condition = "c.name % :pattern OR c.surname % :pattern";
+        pattern = query;
+      }
+      default -> {
+        condition = "c.name ILIKE :pattern OR c.surname ILIKE :pattern";
+        pattern = "%" + escapeLikePattern(query) + "%";
+      }
+    }
+    String sql =
+        "SELECT "
+            + CONTACT_COLUMNS
+            + ", CAST(GREATEST(similarity(c.name, :query), similarity(c.surname, :query))"
+            + " AS DOUBLE PRECISION) AS score "
+            + "FROM contacts c WHERE "
+            + condition
+            + " ORDER BY score DESC, c.pin LIMIT :limit";
+    return databaseClient
+        .sql(sql)
+        .bind("query", query)
+        .bind("pattern", pattern)
+        .bind("limit", limit)
+        .map(
+            row -> new ContactMatch(ContactReadableMapper.map(row), row.get("score", Double.class)))
+        .all();
+  }
+
+  public Flux<Contact> getContactsPage(
+      String searchName, String searchSurname, Gender searchGender, Integer afterPin, int limit) {
+    String sql =
+        CONTACT_SELECT
+            + formWhereClause(searchName, searchSurname, searchGender, afterPin)
+            + " ORDER BY c.pin LIMIT :limit";
+    GenericExecuteSpec spec =
+        bindSearchParams(databaseClient.sql(sql), searchName, searchSurname, searchGender)
+            .bind("limit", limit);
+    if (afterPin != null) {
+      spec = spec.bind("after", afterPin);
+    }
+    return spec.map(ContactReadableMapper::map).all();
+  }
+
+  public Mono<Void> contactCreation(Contact contact) {
+    return batchContactCreation(List.of(contact));
+  }
+
+  // Every table gets one INSERT ... SELECT FROM unnest(...) statement, whatever the batch size.
+  public Mono<Void> batchContactCreation(List<Contact> contacts) {
+    Integer[] pins = new Integer[contacts.size()];
+    String[] names = new String[contacts.size()];
+    String[] surnames = new String[contacts.size()];
+    String[] genders = new String[contacts.size()];
+    List<Integer> phonePins = new ArrayList<>();
+    List<String> phones = new ArrayList<>();
+    List<Integer> emailPins = new ArrayList<>();
+    List<String> emails = new ArrayList<>();
+    for (int i = 0; i < contacts.size(); i++) {
+      Contact contact = contacts.get(i);
+      pins[i] = contact.getPin();
+      names[i] = contact.getName();
+      surnames[i] = contact.getSurname();
+      genders[i] = contact.getGender() != null ? contact.getGender().toString() : null;
+      if (contact.getPhones() != null) {
+        for (String phone : contact.getPhones()) {
+          phonePins.add(contact.getPin());
+          phones.add(phone);
+        }
+      }
+      if (contact.getEmails() != null) {
+        for (String email : contact.getEmails()) {
+          emailPins.add(contact.getPin());
+          emails.add(email);
+        }
+      }
+    }
+    Mono<Long> insertContacts =
+        databaseClient
+            .sql(
+                "INSERT INTO contacts (pin, name, surname, gender) "
+                    + "SELECT * FROM unnest(CAST(:pins AS INTEGER[]), CAST(:names AS VARCHAR[]), "
+                    + "CAST(:surnames AS VARCHAR[]), CAST(:genders AS gender[]))")
+            .bind("pins", pins)
+            .bind("names", names)
+            .bind("surnames", surnames)
+            .bind("genders", genders)
+            .fetch()
+            .rowsUpdated();
+    return insertContacts
+        .then(insertValues("phones", "phone", phonePins, phones))
+        .then(insertValues("emails", "email", emailPins, emails))
+        .as(transactionalOperator::transactional)
+        .then();
+  }
+
+  public Mono<Long> deleteContactByPin(Integer pin) {
+    return databaseClient
+        .sql("DELETE FROM contacts WHERE pin = :pin")
+        .bind("pin", pin)
+        .fetch()
+        .rowsUpdated();
+  }
+
+  // Only provided fields change, so the current contact is never read.
+  public Mono<Long> updateContactDetails(Contact updateRequest) {
+    Integer pin = updateRequest.getPin();
+    GenericExecuteSpec update =
+        databaseClient
+            .sql(
+                "UPDATE contacts SET name = COALESCE(:name, name), "
+                    + "surname = COALESCE(:surname, surname), "
+                    + "gender = COALESCE(CAST(:gender AS gender), gender), "
+                    + NEXT_VERSION
+                    + " WHERE pin = :pin")
+            .bind("pin", pin);
+    update = bindNullable(update, "name", updateRequest.getName());
+    update = bindNullable(update, "surname", updateRequest.getSurname());
+    update =
+        bindNullable(
+            update,
+            "gender",
+            updateRequest.getGender() != null ? updateRequest.getGender().toString() : null);
+    return update
+        .fetch()
+        .rowsUpdated()
+        .flatMap(
+            rows -> {
+              if (rows == 0) {
+                return Mono.just(rows);
+              }
+              Mono<Long> values = Mono.just(rows);
+              if (updateRequest.getPhones() != null) {
+                values = values.then(replacePhones(pin, updateRequest.getPhones()));
+              }
+              if (updateRequest.getEmails() != null) {
+                values =
+                    values.then(replaceValues("emails", "email", pin, updateRequest.getEmails()));
+              }
+              return values.thenReturn(rows);
+            })
+        .as(transactionalOperator::transactional);
+  }
+
+  public Mono<Long> deleteEmail(Integer pin, String email) {
+    return deleteValue("emails", "email", pin, email);
+  }
+
+  public Mono<Long> deletePhone(Integer pin, String phone) {
+    return deleteValue("phones", "phone", pin, phone);
+  }
+
+  public Mono<Long> updateContactAttribute(
+      Integer pin, String attribute, String newValue, String oldValue) {
+    String sql =
+        switch (attribute) {
+          case "name", "surname" ->
+              "UPDATE contacts SET "
+                  + attribute
+                  + " = :value, "
+                  + NEXT_VERSION
+                  + " WHERE pin = :pin";
+          case "gender" ->
+              "UPDATE contacts SET gender = CAST(UPPER(:value) AS gender), "
+                  + NEXT_VERSION
+                  + " WHERE pin = :pin";
+          case "email" ->
+              withVersionBump(
+                  oldValue != null
+                      ? "UPDATE emails SET email = :value WHERE (pin, email_id) = "
+                          + firstValueKey("emails", "email", "old")
+                      : "INSERT INTO emails (pin, email) SELECT :pin, :value WHERE EXISTS "
+                          + "(SELECT 1 FROM contacts WHERE pin = :pin)");
+          case "phone" ->
+              withVersionBump(
+                  oldValue != null
+                      ? "UPDATE phones SET phone = :value, phone_key = :valueKey "
+                          + "WHERE (pin, phone_id) = "
+                          + firstValueKey("phones", "phone", "old")
+                      : "INSERT INTO phones (pin, phone, phone_key) SELECT :pin, :value, :valueKey "
+                          + "WHERE EXISTS (SELECT 1 FROM contacts WHERE pin = :pin)");
+          default -> throw new IllegalArgumentException("Invalid attribute type");
+        };
+    GenericExecuteSpec spec = databaseClient.sql(sql).bind("pin", pin).bind("value", newValue);
+    if (attribute.equals("phone")) {
+      spec = bindPhoneKey(spec, "value", newValue);
+    }
+    if (oldValue != null && (attribute.equals("email") || attribute.equals("phone"))) {
+      spec = spec.bind("old", oldValue);
+      if (attribute.equals("phone")) {
+        spec = bindPhoneKey(spec, "old", oldValue);
+      }
+    }
+    return spec.fetch().rowsUpdated();
+  }
+
+  private Mono<Long> insertValues(
+      String table, String column, List<Integer> pins, List<String> values) {
+    if (values.isEmpty()) {
+      return Mono.just(0L);
+    }
+    boolean phones = table.equals("phones");
+    GenericExecuteSpec spec =
+        databaseClient
+            .sql(
+                "INSERT INTO "
+                    + table
+                    + " (pin, "
+                    + column
+                    + (phones ? ", phone_key" : "")
+                    + ") SELECT * FROM unnest(CAST(:pins AS INTEGER[]), CAST(:values AS VARCHAR[])"
+                    + (phones ? ", CAST(:keys AS BIGINT[]))" : ")"))
+            .bind("pins", pins.toArray(Integer[]::new))
+            .bind("values", values.toArray(String[]::new));
+    if (phones) {
+      spec = spec.bind("keys", PhoneKeys.ofAll(values));
+    }
+    return spec.fetch().rowsUpdated();
+  }
+
+  // Same set difference as JdbcContactRepository: unchanged rows are left alone.
+  private Mono<Long> replaceValues(String table, String column, Integer pin, List<String> values) {
+    return databaseClient
+        .sql(
+            "WITH removed AS (DELETE FROM "
+                + table
+                + " WHERE pin = :pin AND "
+                + column
+                + " <> ALL(CAST(:values AS VARCHAR[])) RETURNING 1), added AS (INSERT INTO "
+                + table
+                + " (pin, "
+                + column
+                + ") SELECT :pin, t.value FROM unnest(CAST(:values AS VARCHAR[])) "
+                + "WITH ORDINALITY AS t(value, position) WHERE NOT EXISTS (SELECT 1 FROM "
+                + table
+                + " v WHERE v.pin = :pin AND v."
+                + column
+                + " = t.value) ORDER BY t.position RETURNING 1) "
+                + "SELECT (SELECT count(*) FROM removed) + (SELECT count(*) FROM added) AS changed")
+        .bind("pin", pin)
+        .bind("values", new LinkedHashSet<>(values).toArray(String[]::new))
+        .map(row -> row.get("changed", Long.class))
+        .one();
+  }
+
+  // Same phone key comparison as JdbcContactRepository.applyPhoneDiff.
+  private Mono<Long> replacePhones(Integer pin, List<String> phones) {
+    Map<Long, String> byKey = new LinkedHashMap<>();
+    for (String phone : phones) {
+      byKey.putIfAbsent(PhoneKeys.of(phone), phone);
+    }
+    return databaseClient
+        .sql(
+            "WITH removed AS (DELETE FROM phones WHERE pin = :pin "
+                + "AND COALESCE(phone_key, 0) <> ALL(CAST(:keys AS BIGINT[])) RETURNING 1), "
+                + "added AS (INSERT INTO phones (pin, phone, phone_key) "
+                + "SELECT :pin, t.value, t.key "
+                + "FROM unnest(CAST(:values AS VARCHAR[]), CAST(:keys AS BIGINT[])) "
+                + "WITH ORDINALITY AS t(value, key, position) WHERE NOT EXISTS "
+                + "(SELECT 1 FROM phones v WHERE v.pin = :pin AND v.phone_key = t.key) "
+                + "ORDER BY t.position RETURNING 1) "
+                + "SELECT (SELECT count(*) FROM removed) + (SELECT count(*) FROM added) AS changed")
+        .bind("pin", pin)
+        .bind("values", byKey.values().toArray(String[]::new))
+        .bind("keys", byKey.keySet().toArray(Long[]::new))
+        .map(row -> row.get("changed", Long.class))
+        .one();
+  }
+
+  private Mono<Long> deleteValue(String table, String column, Integer pin, String value) {
+    GenericExecuteSpec spec =
+        databaseClient
+            .sql(
+                withVersionBump(
+                    "DELETE FROM "
+                        + table
+                        + " WHERE (pin, "
+                        + column
+                        + "_id) = "
+                        + firstValueKey(table, column, "value")))
+            .bind("pin", pin)
+            .bind("value", value);
+    if (table.equals("phones")) {
+      spec = bindPhoneKey(spec, "value", value);
+    }
+    return spec.fetch().rowsUpdated();
+  }
+
+  private static String withVersionBump(String change) {
+    return "WITH changed AS ("
+        + change
+        + " RETURNING pin) UPDATE contacts SET "
+        + NEXT_VERSION
+        + " WHERE pin IN (SELECT pin FROM changed)";
+  }
+
+  // Like the JDBC repository, only the first of duplicate values is changed, found by its whole
+  // primary key.
+  private static String firstValueKey(String table, String column, String valueParameter) {
+    return "(SELECT pin, "
+        + column
+        + "_id FROM "
+        + table
+        + " WHERE pin = :pin AND "
+        + (table.equals("phones") ? phoneMatch(valueParameter) : column + " = :" + valueParameter)
+        + " ORDER BY "
+        + column
+        + "_id LIMIT 1)";
+  }
+
+  // Phones are compared by key, unkeyed rows as stored; binds :<parameter> and :<parameter>Key.
+  private static String phoneMatch(String parameter) {
+    return "(phone_key = :"
+        + parameter
+        + "Key OR (phone_key IS NULL AND phone = :"
+        + parameter
+        + "))";
+  }
+
+  private static GenericExecuteSpec bindPhoneKey(
+      GenericExecuteSpec spec, String parameter, String phone) {
+    Long key = PhoneKeys.of(phone);
+    return key != null
+        ? spec.bind(parameter + "Key", key)
+        : spec.bindNull(parameter + "Key", Long.class);
+  }
+
+  private static String formWhereClause(
+      String searchName, String searchSurname, Gender searchGender, Integer afterPin) {
+    List<String> conditions = new ArrayList<>();
+    if (searchName != null) {
+      conditions.add("c.name ILIKE :name");
+    }
+    if (searchSurname != null) {
+      conditions.add("c.surname ILIKE :surname");
+    }
+    if (searchGender != null) {
+      conditions.add("CAST(c.gender AS TEXT) = :gender");
+    }
+    if (afterPin != null) {
+      conditions.add("c.pin > :after");
+    }
+    return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+  }
+
+  private static GenericExecuteSpec bindSearchParams(
+      GenericExecuteSpec spec, String searchName, String searchSurname, Gender searchGender) {
+    if (searchName != null) {
+      spec = spec.bind("name", searchName);
+    }
+    if (searchSurname != null) {
+      spec = spec.bind("surname", searchSurname);
+    }
+    if (searchGender != null) {
+      spec = spec.bind("gender", searchGender.toString());
+    }
+    return spec;
+  }
+
+  private static GenericExecuteSpec bindNullable(
+      GenericExecuteSpec spec, String name, String value) {
+    return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+  }
+
+  private static String escapeLikePattern(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.AddressBook.repository.reactive;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.NameSearchMode;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link com.example.AddressBook.repository.ContactRepository}. Writes
+ * report affected rows so callers can answer "not found" without reading the contact first.
+ */
+public interface ReactiveContactRepository {
+
+  Flux<Contact> getAllContacts();
+
+  Mono<Contact> getContactByPin(Integer pin);
+
+  Flux<Contact> getContactsByPins(Integer[] pins);
+
+  Flux<Contact> getContactsByPhone(String phone);
+
+  Flux<Contact> getContactsByEmail(String email);
+
+  Flux<Contact> searchContactsByParameter(
+      String nameValue, String surnameValue, Gender genderValue);
+
+  Flux<ContactMatch> searchContactsByName(String query, NameSearchMode mode, int limit);
+
+  Flux<Contact> getContactsPage(
+      String nameValue, String surnameValue, Gender genderValue, Integer afterPin, int limit);
+
+  Mono<Void> contactCreation(Contact contact);
+
+  Mono<Void> batchContactCreation(List<Contact> contacts);
+
+  Mono<Long> deleteContactByPin(Integer pin);
+
+  Mono<Long> updateContactDetails(Contact updateRequest);
+
+  Mono<Long> deleteEmail(Integer pin, String email);
+
+  Mono<Long> deletePhone(Integer pin, String phone);
+
+  Mono<Long> updateContactAttribute(
+      Integer pin, String attribute, String newValue, String oldValue);
+}
@@ -0,0 +1,80 @@
+package com.example.AddressBook.repository.search;
+
+import com.example.AddressBook.model.Gender;
+import java.sql.PreparedStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class ContactSearchIndexLoader {
+
+  private static final Logger log = LoggerFactory.getLogger(ContactSearchIndexLoader.class);
+  private static final int FETCH_SIZE = 5000;
+  private static final String INDEX_SOURCE_SQL = "SELECT pin, name, surname, gender FROM contacts";
+
+  private final NGramContactIndex searchIndex;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public ContactSearchIndexLoader(
+      NGramContactIndex searchIndex,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+    this.searchIndex = searchIndex;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    rebuildAsync();
+  }
+
+  /** Marks the index stale, so searches go to SQL, and rebuilds it in the background. */
+  public void rebuildAsync() {
+    if (!searchIndex.isEnabled()) {
+      return;
+    }
+    searchIndex.markStale();
+    Thread.ofVirtual().name("contact-search-index").start(this::rebuild);
+  }
+
+  private void rebuild() {
+    long start = System.currentTimeMillis();
+    try {
+      transactionTemplate.executeWithoutResult(status -> searchIndex.rebuild(this::loadContacts));
+      log.info(
+          "Contact search index built with {} contacts in {} ms",
+          searchIndex.size(),
+          System.currentTimeMillis() - start);
+    } catch (RuntimeException e) {
+      log.error("Failed to build contact search index, searches will use SQL", e);
+    }
+  }
+
+  private void loadContacts(NGramContactIndex.ContactSink sink) {
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(INDEX_SOURCE_SQL);
+          statement.setFetchSize(FETCH_SIZE);
+          return statement;
+        },
+        (RowCallbackHandler)
+            rs -> {
+              String gender = rs.getString("gender");
+              sink.put(
+                  rs.getInt("pin"),
+                  rs.getString("name"),
+                  rs.getString("surname"),
+                  gender != null ? Gender.valueOf(gender) : null);
+            });
+  }
+}
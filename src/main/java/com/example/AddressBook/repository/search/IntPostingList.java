@@ -0,0 +1,73 @@
+package com.example.AddressBook.repository.search;
+
+import java.util.Arrays;
+
+/** Sorted set of PINs backed by a primitive int array. */
+class IntPostingList {
+
+  private int[] values = new int[4];
+  private int size;
+
+  void add(int value) {
+    if (size > 0 && values[size - 1] < value) {
+      ensureCapacity();
+      values[size++] = value;
+      return;
+    }
+    int index = Arrays.binarySearch(values, 0, size, value);
+    if (index >= 0) {
+      return;
+    }
+    int insertAt = -index - 1;
+    ensureCapacity();
+    System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+    values[insertAt] = value;
+    size++;
+  }
+
+  void remove(int value) {
+    int index = Arrays.binarySearch(values, 0, size, value);
+    if (index >= 0) {
+      System.arraycopy(values, index + 1, values, index, size - index - 1);
+      size--;
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int[] toArray() {
+    return Arrays.copyOf(values, size);
+  }
+
+  /** Keeps only the values of {@code sorted} that are also in this list. */
+  int[] retainIn(int[] sorted) {
+    int[] result = new int[Math.min(sorted.length, size)];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < sorted.length && j < size) {
+      if (sorted[i] == values[j]) {
+        result[count++] = sorted[i];
+        i++;
+        j++;
+      } else if (sorted[i] < values[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private void ensureCapacity() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+  }
+}
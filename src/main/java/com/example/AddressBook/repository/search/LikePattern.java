@@ -0,0 +1,63 @@
+package com.example.AddressBook.repository.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Case-insensitive SQL LIKE pattern: {@code %} matches any sequence, {@code _} any single character
+ * and a backslash escapes the next character, as in PostgreSQL ILIKE.
+ */
+final class LikePattern {
+
+  private final Pattern regex;
+  private final List<String> literals;
+
+  private LikePattern(Pattern regex, List<String> literals) {
+    this.regex = regex;
+    this.literals = literals;
+  }
+
+  static LikePattern compile(String pattern) {
+    StringBuilder regex = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
+    List<String> literals = new ArrayList<>();
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '\\' && i + 1 < pattern.length()) {
+        literal.append(pattern.charAt(++i));
+      } else if (c == '%' || c == '_') {
+        appendLiteral(regex, literal, literals);
+        regex.append(c == '%' ? ".*" : ".");
+      } else {
+        literal.append(c);
+      }
+    }
+    appendLiteral(regex, literal, literals);
+    return new LikePattern(Pattern.compile(regex.toString(), Pattern.DOTALL), literals);
+  }
+
+  /** Lower-cased runs of characters that every matching value must contain. */
+  List<String> literals() {
+    return literals;
+  }
+
+  boolean matches(String lowerCaseValue) {
+    return regex.matcher(lowerCaseValue).matches();
+  }
+
+  static String normalize(String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+
+  private static void appendLiteral(
+      StringBuilder regex, StringBuilder literal, List<String> literals) {
+    if (!literal.isEmpty()) {
+      String lowerCase = normalize(literal.toString());
+      regex.append(Pattern.quote(lowerCase));
+      literals.add(lowerCase);
+      literal.setLength(0);
+    }
+  }
+}
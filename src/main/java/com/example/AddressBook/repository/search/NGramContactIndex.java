@@ -0,0 +1,263 @@
+package com.example.AddressBook.repository.search;
+
+import com.example.AddressBook.model.Gender;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory trigram index over contact names and surnames, answering the ILIKE filters of {@code
+ * searchContactsByParameter} with the PINs of matching contacts.
+ *
+ * <p>Candidates come from intersecting the posting lists of the trigrams in the literal parts of a
+ * pattern; every candidate is then checked against the full pattern. Patterns without a literal of
+ * three or more characters fall back to checking every entry. Writes that arrive while the index is
+ * being rebuilt are applied to the live index and replayed on the rebuilt one before it is swapped
+ * in.
+ */
+@Component
+public class NGramContactIndex {
+
+  static final int GRAM_LENGTH = 3;
+
+  private final boolean enabled;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final List<Consumer<IndexData>> pendingDuringRebuild = new ArrayList<>();
+  private IndexData data = new IndexData();
+  private IndexData building;
+  private volatile boolean ready;
+
+  public NGramContactIndex(@Value("${addressbook.search-index.enabled:false}") boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @FunctionalInterface
+  public interface ContactSink {
+    void put(int pin, String name, String surname, Gender gender);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public boolean isReady() {
+    return enabled && ready;
+  }
+
+  public void markStale() {
+    ready = false;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return data.entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void put(int pin, String name, String surname, Gender gender) {
+    apply(index -> index.put(pin, name, surname, gender));
+  }
+
+  public void remove(int pin) {
+    apply(index -> index.remove(pin));
+  }
+
+  public void updateAttribute(int pin, String attribute, String value) {
+    apply(index -> index.updateAttribute(pin, attribute, value));
+  }
+
+  public synchronized void rebuild(Consumer<ContactSink> loader) {
+    IndexData fresh = new IndexData();
+    lock.writeLock().lock();
+    try {
+      building = fresh;
+      pendingDuringRebuild.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    try {
+      loader.accept(fresh::put);
+    } catch (RuntimeException | Error e) {
+      lock.writeLock().lock();
+      try {
+        building = null;
+        pendingDuringRebuild.clear();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      throw e;
+    }
+
+    // Replay and swap under one lock, so no write can land on the old index after the replay.
+    lock.writeLock().lock();
+    try {
+      pendingDuringRebuild.forEach(mutation -> mutation.accept(fresh));
+      pendingDuringRebuild.clear();
+      building = null;
+      data = fresh;
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the sorted PINs of contacts matching all given filters with ILIKE semantics, or {@code
+   * null} if more than {@code maxResults} contacts match.
+   */
+  public int[] search(String namePattern, String surnamePattern, Gender gender, int maxResults) {
+    LikePattern name = namePattern != null ? LikePattern.compile(namePattern) : null;
+    LikePattern surname = surnamePattern != null ? LikePattern.compile(surnamePattern) : null;
+
+    lock.readLock().lock();
+    try {
+      int[] candidates = null;
+      if (name != null) {
+        candidates = data.candidates(name, data.nameGrams, null);
+      }
+      if (surname != null) {
+        candidates = data.candidates(surname, data.surnameGrams, candidates);
+      }
+      if (candidates == null) {
+        candidates = data.allPins();
+      }
+
+      int[] matches = new int[Math.min(candidates.length, maxResults + 1)];
+      int count = 0;
+      for (int pin : candidates) {
+        Entry entry = data.entries.get(pin);
+        if (entry != null && entry.matches(name, surname, gender)) {
+          if (count == maxResults) {
+            return null;
+          }
+          matches[count++] = pin;
+        }
+      }
+      int[] result = Arrays.copyOf(matches, count);
+      Arrays.sort(result);
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void apply(Consumer<IndexData> mutation) {
+    if (!enabled) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      mutation.accept(data);
+      if (building != null) {
+        pendingDuringRebuild.add(mutation);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private record Entry(String name, String surname, Gender gender) {
+
+    boolean matches(LikePattern namePattern, LikePattern surnamePattern, Gender genderFilter) {
+      return (namePattern == null || namePattern.matches(name))
+          && (surnamePattern == null || surnamePattern.matches(surname))
+          && (genderFilter == null || genderFilter == gender);
+    }
+  }
+
+  private static final class IndexData {
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, IntPostingList> nameGrams = new HashMap<>();
+    private final Map<String, IntPostingList> surnameGrams = new HashMap<>();
+
+    void put(int pin, String name, String surname, Gender gender) {
+      remove(pin);
+      Entry entry = new Entry(LikePattern.normalize(name), LikePattern.normalize(surname), gender);
+      entries.put(pin, entry);
+      addGrams(nameGrams, entry.name(), pin);
+      addGrams(surnameGrams, entry.surname(), pin);
+    }
+
+    void remove(int pin) {
+      Entry entry = entries.remove(pin);
+      if (entry != null) {
+        removeGrams(nameGrams, entry.name(), pin);
+        removeGrams(surnameGrams, entry.surname(), pin);
+      }
+    }
+
+    void updateAttribute(int pin, String attribute, String value) {
+      Entry entry = entries.get(pin);
+      if (entry == null) {
+        return;
+      }
+      switch (attribute) {
+        case "name" -> put(pin, value, entry.surname(), entry.gender());
+        case "surname" -> put(pin, entry.name(), value, entry.gender());
+        case "gender" ->
+            put(pin, entry.name(), entry.surname(), Gender.valueOf(value.toUpperCase(Locale.ROOT)));
+      }
+    }
+
+    int[] allPins() {
+      return entries.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Narrows {@code current} (null meaning every contact) by the trigrams of the pattern. */
+    int[] candidates(LikePattern pattern, Map<String, IntPostingList> grams, int[] current) {
+      List<IntPostingList> postings = new ArrayList<>();
+      for (String literal : pattern.literals()) {
+        for (int i = 0; i + GRAM_LENGTH <= literal.length(); i++) {
+          IntPostingList posting = grams.get(literal.substring(i, i + GRAM_LENGTH));
+          if (posting == null) {
+            return new int[0];
+          }
+          postings.add(posting);
+        }
+      }
+      postings.sort(Comparator.comparingInt(IntPostingList::size));
+
+      int[] result = current;
+      for (IntPostingList posting : postings) {
+        result = result == null ? posting.toArray() : posting.retainIn(result);
+        if (result.length == 0) {
+          break;
+        }
+      }
+      return result;
+    }
+
+    private static void addGrams(Map<String, IntPostingList> grams, String value, int pin) {
+      for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+        grams
+            .computeIfAbsent(value.substring(i, i + GRAM_LENGTH), g -> new IntPostingList())
+            .add(pin);
+      }
+    }
+
+    private static void removeGrams(Map<String, IntPostingList> grams, String value, int pin) {
+      for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+        String gram = value.substring(i, i + GRAM_LENGTH);
+        IntPostingList posting = grams.get(gram);
+        if (posting != null) {
+          posting.remove(pin);
+          if (posting.isEmpty()) {
+            grams.remove(gram);
+          }
+        }
+      }
+    }
+  }
+}
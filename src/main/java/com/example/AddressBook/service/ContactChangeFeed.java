@@ -0,0 +1,162 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.model.ContactChange;
+import com.example.AddressBook.model.ContactChangePage;
+import com.example.AddressBook.repository.ContactChangeRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Resumable feed of contact changes: "give me the changes after sequence X", optionally waiting
+ * until there are some.
+ *
+ * <p>Sequence numbers are taken when a change is written, not when it commits, so a transaction
+ * that is still running can commit a lower number than one that is already visible. The feed only
+ * hands out numbers up to a settled sequence: it notes the last sequence value, then the next
+ * transaction id, and once every transaction below that id has ended no number up to the noted
+ * value can still appear. A consumer that has read up to X will therefore never miss a change below
+ * X.
+ */
+@Service
+public class ContactChangeFeed {
+
+  public static final int DEFAULT_CHANGES_LIMIT = 100;
+  public static final int MAX_CHANGES_LIMIT = 1000;
+  public static final int MAX_WAIT_SECONDS = 60;
+  // Checkpoints waiting on a long transaction; dropping the oldest only delays settling.
+  private static final int MAX_CHECKPOINTS = 1000;
+
+  private static final Logger log = LoggerFactory.getLogger(ContactChangeFeed.class);
+
+  private final ContactChangeRepository changeRepository;
+  private final Duration retention;
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  // {last sequence value, next transaction id after it}
+  private final List<long[]> checkpoints = new ArrayList<>();
+  private long settledSequence;
+
+  public ContactChangeFeed(
+      ContactChangeRepository changeRepository,
+      @Value("${addressbook.changes.retention:7d}") Duration retention) {
+    this.changeRepository = changeRepository;
+    this.retention = retention;
+  }
+
+  /**
+   * Without {@code afterSequence} the page is empty and its nextSequence is the current end of the
+   * feed, where a consumer that has just read all contacts starts. With {@code waitSeconds} an
+   * empty result is held back until changes arrive or the wait ends.
+   */
+  public DeferredResult<ResponseEntity<ContactChangePage>> getChanges(
+      Long afterSequence, Integer limit, Integer waitSeconds) {
+    int pageSize = limit == null ? DEFAULT_CHANGES_LIMIT : Math.clamp(limit, 1, MAX_CHANGES_LIMIT);
+    int wait = waitSeconds == null ? 0 : Math.clamp(waitSeconds, 0, MAX_WAIT_SECONDS);
+    long settled = settle();
+    ContactChangePage page =
+        afterSequence == null
+            ? new ContactChangePage(List.of(), settled)
+            : readPage(afterSequence, pageSize, settled);
+    if (afterSequence == null || !page.getChanges().isEmpty() || wait == 0) {
+      DeferredResult<ResponseEntity<ContactChangePage>> result = new DeferredResult<>();
+      result.setResult(ResponseEntity.ok(page));
+      return result;
+    }
+    DeferredResult<ResponseEntity<ContactChangePage>> result =
+        new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait));
+    Waiter waiter = new Waiter(page.getNextSequence(), pageSize, result);
+    result.onTimeout(
+        () -> result.setResult(ResponseEntity.ok(new ContactChangePage(List.of(), waiter.after))));
+    result.onCompletion(() -> waiters.remove(waiter));
+    waiters.add(waiter);
+    return result;
+  }
+
+  // One read per distinct position answers every waiter at that position.
+  @Scheduled(fixedDelayString = "${addressbook.changes.poll-interval:1s}")
+  public void wakeWaiters() {
+    if (waiters.isEmpty()) {
+      return;
+    }
+    long settled = settle();
+    Map<List<Long>, ContactChangePage> pages = new HashMap<>();
+    for (Waiter waiter : waiters) {
+      if (waiter.after >= settled) {
+        continue;
+      }
+      ContactChangePage page =
+          pages.computeIfAbsent(
+              List.of(waiter.after, (long) waiter.limit),
+              key -> readPage(waiter.after, waiter.limit, settled));
+      if (page.getChanges().isEmpty()) {
+        waiter.after = page.getNextSequence();
+      } else {
+        waiter.result.setResult(ResponseEntity.ok(page));
+      }
+    }
+  }
+
+  @Scheduled(
+      fixedDelayString = "${addressbook.changes.compaction-interval:1h}",
+      initialDelayString = "${addressbook.changes.compaction-interval:1h}")
+  public void compact() {
+    int removed = changeRepository.compact(retention);
+    log.info("Compacted {} superseded contact changes older than {}", removed, retention);
+  }
+
+  // A page that is not full has read everything up to the settled sequence, so the consumer
+  // continues from there instead of re-reading the gap left by rolled back or compacted entries.
+  private ContactChangePage readPage(long afterSequence, int limit, long settled) {
+    if (afterSequence >= settled) {
+      return new ContactChangePage(List.of(), afterSequence);
+    }
+    List<ContactChange> changes = changeRepository.getChanges(afterSequence, settled, limit);
+    long next = changes.size() < limit ? settled : changes.getLast().getSequence();
+    return new ContactChangePage(changes, next);
+  }
+
+  private long settle() {
+    long lastSequence = changeRepository.getLastSequenceValue();
+    long[] transactions = changeRepository.getTransactionBounds();
+    synchronized (checkpoints) {
+      checkpoints.add(new long[] {lastSequence, transactions[1]});
+      checkpoints.removeIf(
+          checkpoint -> {
+            if (checkpoint[1] > transactions[0]) {
+              return false;
+            }
+            settledSequence = Math.max(settledSequence, checkpoint[0]);
+            return true;
+          });
+      if (checkpoints.size() > MAX_CHECKPOINTS) {
+        checkpoints.removeFirst();
+      }
+      return settledSequence;
+    }
+  }
+
+  private static final class Waiter {
+    private volatile long after;
+    private final int limit;
+    private final DeferredResult<ResponseEntity<ContactChangePage>> result;
+
+    private Waiter(
+        long after, int limit, DeferredResult<ResponseEntity<ContactChangePage>> result) {
+      this.after = after;
+      this.limit = limit;
+      this.result = result;
+    }
+  }
+}
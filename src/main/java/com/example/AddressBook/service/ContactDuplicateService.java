@@ -0,0 +1,196 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.duplicates.DuplicateDetector;
+import com.example.AddressBook.model.DuplicatePair;
+import com.example.AddressBook.model.DuplicateScanState;
+import com.example.AddressBook.model.DuplicateScanStatus;
+import com.example.AddressBook.repository.ContactRepository;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs {@link DuplicateDetector} over the whole address book in the background and keeps the ranked
+ * report of each scan for {@code addressbook.duplicates.retention}.
+ *
+ * <p>Contacts are read once through the database cursor of {@link
+ * ContactRepository#streamContacts}; the detector holds their names, phone keys and addresses in
+ * memory while the scan runs, so one scan runs at a time, and a request made while a scan is queued
+ * or running is answered with {@code 409} and that scan. Scoring uses a fork-join pool of {@code
+ * addressbook.duplicates.parallelism} workers, all processors by default.
+ */
+@Service
+public class ContactDuplicateService {
+
+  public static final int DEFAULT_REPORT_LIMIT = 100;
+  public static final int MAX_REPORT_LIMIT = 1000;
+
+  private static final Logger log = LoggerFactory.getLogger(ContactDuplicateService.class);
+  private static final String JOB_PATH = "/api/contacts/duplicates/";
+
+  private final ContactRepository contactRepository;
+  private final double defaultMinScore;
+  private final int maxBlockSize;
+  private final int window;
+  private final Duration retention;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          Thread.ofPlatform().name("duplicate-scan").daemon().factory());
+  private final ForkJoinPool scoringPool;
+  private final Map<String, ScanJob> jobs = new ConcurrentHashMap<>();
+  private ScanJob latestScan;
+
+  public ContactDuplicateService(
+      ContactRepository contactRepository,
+      @Value("${addressbook.duplicates.min-score:0.7}") double defaultMinScore,
+      @Value("${addressbook.duplicates.max-block-size:1000}") int maxBlockSize,
+      @Value("${addressbook.duplicates.window:50}") int window,
+      @Value("${addressbook.duplicates.parallelism:0}") int parallelism,
+      @Value("${addressbook.duplicates.retention:24h}") Duration retention) {
+    this.contactRepository = contactRepository;
+    this.defaultMinScore = defaultMinScore;
+    this.maxBlockSize = maxBlockSize;
+    this.window = window;
+    this.retention = retention;
+    this.scoringPool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+    scoringPool.shutdownNow();
+  }
+
+  // A scan that is queued or running answers a second request itself: another full scan would
+  // only hold a second copy of the address book in memory and report the same pairs.
+  public synchronized ResponseEntity<DuplicateScanStatus> startScan(Double minScore) {
+    if (latestScan != null && !latestScan.isFinished()) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .location(URI.create(JOB_PATH + latestScan.id))
+          .body(latestScan.status(0, 0));
+    }
+    double threshold = minScore == null ? defaultMinScore : Math.clamp(minScore, 0, 1);
+    ScanJob job =
+        new ScanJob(
+            UUID.randomUUID().toString(),
+            threshold,
+            new DuplicateDetector(threshold, maxBlockSize, window));
+    jobs.put(job.id, job);
+    latestScan = job;
+    executor.execute(() -> run(job));
+    return ResponseEntity.accepted().location(URI.create(JOB_PATH + job.id)).body(job.status(0, 0));
+  }
+
+  public ResponseEntity<DuplicateScanStatus> getScan(String jobId, Integer offset, Integer limit) {
+    ScanJob job = jobs.get(jobId);
+    if (job == null) {
+      return ResponseEntity.notFound().build();
+    }
+    int from = offset == null ? 0 : Math.max(offset, 0);
+    int pageSize = limit == null ? DEFAULT_REPORT_LIMIT : Math.clamp(limit, 1, MAX_REPORT_LIMIT);
+    return ResponseEntity.ok(job.status(from, pageSize));
+  }
+
+  // Runs far more often than the retention, so a report outlives it by one interval at most.
+  @Scheduled(fixedDelayString = "${addressbook.duplicates.sweep-interval:1m}")
+  public void removeExpiredScans() {
+    Instant expiredBefore = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.completedBefore(expiredBefore));
+  }
+
+  private void run(ScanJob job) {
+    job.start();
+    long start = System.currentTimeMillis();
+    try {
+      contactRepository.streamContacts(null, null, null, job.detector::add);
+      List<DuplicatePair> duplicates = job.detector.detect(scoringPool);
+      job.finish(DuplicateScanState.COMPLETED, duplicates, null);
+      log.info(
+          "Duplicate scan {} compared {} pairs of {} contacts and found {} duplicates in {} ms",
+          job.id,
+          job.detector.getPairsCompared(),
+          job.detector.getContactCount(),
+          duplicates.size(),
+          System.currentTimeMillis() - start);
+    } catch (Exception e) {
+      log.error("Duplicate scan {} failed", job.id, e);
+      job.finish(DuplicateScanState.FAILED, null, e.getMessage());
+    }
+  }
+
+  // Written by the scan thread, read by status requests. The end state, report and completion time
+  // change together, so a scan is never seen completed without them.
+  private static final class ScanJob {
+    private final String id;
+    private final double minScore;
+    private final DuplicateDetector detector;
+    private final Instant createdAt = Instant.now();
+    private DuplicateScanState state = DuplicateScanState.QUEUED;
+    private List<DuplicatePair> duplicates;
+    private String error;
+    private Instant completedAt;
+
+    private ScanJob(String id, double minScore, DuplicateDetector detector) {
+      this.id = id;
+      this.minScore = minScore;
+      this.detector = detector;
+    }
+
+    synchronized void start() {
+      state = DuplicateScanState.RUNNING;
+    }
+
+    synchronized void finish(
+        DuplicateScanState endState, List<DuplicatePair> report, String failure) {
+      duplicates = report;
+      error = failure;
+      state = endState;
+      completedAt = Instant.now();
+    }
+
+    synchronized boolean isFinished() {
+      return completedAt != null;
+    }
+
+    synchronized boolean completedBefore(Instant instant) {
+      return completedAt != null && completedAt.isBefore(instant);
+    }
+
+    synchronized DuplicateScanStatus status(int offset, int limit) {
+      DuplicateScanStatus status = new DuplicateScanStatus();
+      status.setJobId(id);
+      status.setState(state);
+      status.setMinScore(minScore);
+      status.setContactsScanned(detector.getContactCount());
+      status.setBlocks(detector.getBlockCount());
+      status.setPairsCompared(detector.getPairsCompared());
+      status.setError(error);
+      status.setCreatedAt(createdAt);
+      status.setCompletedAt(completedAt);
+      List<DuplicatePair> report = duplicates;
+      if (report != null) {
+        status.setDuplicatesFound(report.size());
+        int to = (int) Math.min((long) offset + limit, report.size());
+        status.setDuplicates(report.subList(Math.min(offset, to), to));
+      }
+      return status;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.exceptions.ContactVersionMismatchException;
+import com.example.AddressBook.model.ContactsVersion;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Strong ETags of contact and contact list responses, built from contact versions. The JSON, CBOR
+ * and Smile bodies of one version differ byte for byte, so each representation gets its own tag:
+ * JSON keeps the bare version and the binary formats append their subtype, as in {@code "7+cbor"}.
+ */
+final class ContactETags {
+
+  // In the order of the message converters, so JSON wins wherever a wildcard is accepted.
+  private static final List<MediaType> REPRESENTATIONS =
+      List.of(
+          MediaType.APPLICATION_JSON,
+          MediaType.APPLICATION_CBOR,
+          new MediaType("application", "x-jackson-smile"));
+
+  private ContactETags() {}
+
+  /** The representation the Accept header negotiates, JSON when it names none of them. */
+  static MediaType representation(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return MediaType.APPLICATION_JSON;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+    } catch (InvalidMediaTypeException e) {
+      return MediaType.APPLICATION_JSON;
+    }
+    accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+    for (MediaType type : accepted) {
+      if (type.getQualityValue() > 0) {
+        for (MediaType representation : REPRESENTATIONS) {
+          if (type.includes(representation)) {
+            return representation;
+          }
+        }
+      }
+    }
+    return MediaType.APPLICATION_JSON;
+  }
+
+  static String forRepresentation(String etag, MediaType representation) {
+    if (etag == null || representation.equals(MediaType.APPLICATION_JSON)) {
+      return etag;
+    }
+    return etag.substring(0, etag.length() - 1) + "+" + representation.getSubtype() + "\"";
+  }
+
+  static String of(Long version) {
+    return version != null ? "\"" + version + "\"" : null;
+  }
+
+  static String of(ContactsVersion version) {
+    return "\""
+        + version.getCount()
+        + "-"
+        + version.getMaxVersion()
+        + "-"
+        + version.getVersionSum()
+        + "\"";
+  }
+
+  // If-None-Match uses the weak comparison, so a W/ prefix does not prevent a match.
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (etag == null) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      String candidate = tag.strip();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // If-Match uses the strong comparison against a single contact version; "*" accepts any.
+  static Long expectedVersion(Integer pin, String ifMatch) {
+    if (ifMatch == null || ifMatch.strip().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.strip();
+    // The version is the same in every representation.
+    int representation = tag.indexOf('+');
+    if (representation > 0 && tag.endsWith("\"")) {
+      tag = tag.substring(0, representation) + "\"";
+    }
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      try {
+        return Long.parseLong(tag.substring(1, tag.length() - 1));
+      } catch (NumberFormatException e) {
+        // Not an ETag this service has issued.
+      }
+    }
+    throw new ContactVersionMismatchException(pin);
+  }
+}
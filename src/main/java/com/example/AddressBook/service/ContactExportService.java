@@ -0,0 +1,277 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.exceptions.ExportQueueFullException;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ExportFormat;
+import com.example.AddressBook.model.ExportJobStatus;
+import com.example.AddressBook.model.ExportState;
+import com.example.AddressBook.repository.ContactRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exports the whole address book to a gzip-compressed CSV or NDJSON file in the background.
+ *
+ * <p>At most {@code addressbook.export.max-concurrent} exports run at once and {@code
+ * addressbook.export.max-queued} wait for their turn; further requests are rejected with {@code
+ * 429}.
+ *
+ * <p>Contacts are read through the database cursor of {@link ContactRepository#streamContacts} and
+ * written straight into the compressed file, so memory use does not grow with the address book. The
+ * file is written under a temporary name and renamed when complete, and the finished file is served
+ * as a {@link Resource}, for which Spring MVC answers {@code Range} requests with {@code 206
+ * Partial Content}; an interrupted download resumes where it stopped. CSV files use the columns of
+ * {@code /contacts/importCsv}, so an export can be imported again.
+ */
+@Service
+public class ContactExportService {
+
+  private static final Logger log = LoggerFactory.getLogger(ContactExportService.class);
+  private static final String JOB_PATH = "/api/contacts/exports/";
+  private static final String CSV_HEADER = "pin,name,surname,gender,phones,emails\n";
+
+  private final ContactRepository contactRepository;
+  private final ObjectWriter ndjsonWriter;
+  private final Path directory;
+  private final Duration retention;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+  public ContactExportService(
+      ContactRepository contactRepository,
+      ObjectMapper objectMapper,
+      @Value("${addressbook.export.directory:${java.io.tmpdir}/addressbook-exports}")
+          Path directory,
+      @Value("${addressbook.export.retention:24h}") Duration retention,
+      @Value("${addressbook.export.max-concurrent:1}") int maxConcurrent,
+      @Value("${addressbook.export.max-queued:10}") int maxQueued) {
+    this.contactRepository = contactRepository;
+    // Flushing after every contact would push each one through gzip to the file on its own.
+    this.ndjsonWriter =
+        objectMapper
+            .writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.directory = directory;
+    this.retention = retention;
+    // Every running export holds a database connection until it is done; waiting ones are bounded
+    // so that repeated requests cannot pile up jobs without limit.
+    this.executor =
+        new ThreadPoolExecutor(
+            maxConcurrent,
+            maxConcurrent,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueued),
+            Thread.ofPlatform().name("contact-export-", 0).daemon().factory());
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  public ResponseEntity<ExportJobStatus> startExport(ExportFormat format) {
+    ExportJob job = new ExportJob(UUID.randomUUID().toString(), format);
+    jobs.put(job.id, job);
+    try {
+      executor.execute(() -> run(job));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.id);
+      throw new ExportQueueFullException(executor.getQueue().size());
+    }
+    return ResponseEntity.accepted().location(URI.create(JOB_PATH + job.id)).body(job.status());
+  }
+
+  public ResponseEntity<ExportJobStatus> getExportStatus(String jobId) {
+    ExportJob job = jobs.get(jobId);
+    return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.status());
+  }
+
+  // The file never changes once complete, so the job id serves as its strong ETag.
+  public ResponseEntity<Resource> getExportFile(String jobId) {
+    ExportJob job = jobs.get(jobId);
+    if (job == null) {
+      return ResponseEntity.notFound().build();
+    }
+    if (job.state != ExportState.COMPLETED) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+    ContentDisposition disposition =
+        ContentDisposition.attachment().filename(job.file.getFileName().toString()).build();
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("application/gzip"))
+        .eTag(jobId)
+        .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+        .body(new FileSystemResource(job.file));
+  }
+
+  // Runs far more often than the retention, so a file outlives it by one interval at most.
+  @Scheduled(fixedDelayString = "${addressbook.export.sweep-interval:1m}")
+  public void removeExpiredExports() {
+    Instant expiredBefore = Instant.now().minus(retention);
+    jobs.values()
+        .removeIf(
+            job -> {
+              if (job.completedAt == null || job.completedAt.isAfter(expiredBefore)) {
+                return false;
+              }
+              try {
+                if (job.file != null) {
+                  Files.deleteIfExists(job.file);
+                }
+              } catch (IOException e) {
+                log.warn("Could not delete export file {}", job.file, e);
+              }
+              return true;
+            });
+  }
+
+  private void run(ExportJob job) {
+    job.state = ExportState.RUNNING;
+    Path partial = directory.resolve(job.id + ".part");
+    try {
+      Files.createDirectories(directory);
+      job.totalContacts = contactRepository.getContactsVersion(null, null, null).getCount();
+      try (OutputStream out =
+          new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)), 65536)) {
+        if (job.format == ExportFormat.CSV) {
+          out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        contactRepository.streamContacts(
+            null,
+            null,
+            null,
+            contact -> {
+              try {
+                write(job.format, contact, out);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+              job.exportedContacts++;
+            });
+      }
+      job.file =
+          Files.move(
+              partial,
+              directory.resolve("contacts-" + job.id + "." + job.format.getExtension() + ".gz"),
+              StandardCopyOption.ATOMIC_MOVE);
+      job.fileSize = Files.size(job.file);
+      job.state = ExportState.COMPLETED;
+    } catch (Exception e) {
+      log.error("Export {} failed", job.id, e);
+      job.error = e.getMessage();
+      job.state = ExportState.FAILED;
+      try {
+        Files.deleteIfExists(partial);
+      } catch (IOException deleteFailure) {
+        log.warn("Could not delete partial export file {}", partial, deleteFailure);
+      }
+    }
+    job.completedAt = Instant.now();
+  }
+
+  private void write(ExportFormat format, Contact contact, OutputStream out) throws IOException {
+    if (format == ExportFormat.NDJSON) {
+      ndjsonWriter.writeValue(out, contact);
+      out.write('\n');
+      return;
+    }
+    StringBuilder line = new StringBuilder(128);
+    line.append(contact.getPin()).append(',');
+    appendCsvField(line, contact.getName()).append(',');
+    appendCsvField(line, contact.getSurname()).append(',');
+    line.append(contact.getGender() != null ? contact.getGender().name() : "").append(',');
+    appendCsvField(line, joinValues(contact.getPhones())).append(',');
+    appendCsvField(line, joinValues(contact.getEmails())).append('\n');
+    out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String joinValues(List<String> values) {
+    return values == null ? "" : String.join(";", values);
+  }
+
+  private static StringBuilder appendCsvField(StringBuilder line, String value) {
+    if (value == null) {
+      return line;
+    }
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return line.append(value);
+    }
+    return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+  }
+
+  // Written by the export thread, read by status requests.
+  private static final class ExportJob {
+    private final String id;
+    private final ExportFormat format;
+    private final Instant createdAt = Instant.now();
+    private volatile ExportState state = ExportState.QUEUED;
+    private volatile long totalContacts;
+    private volatile long exportedContacts;
+    private volatile Path file;
+    private volatile Long fileSize;
+    private volatile String error;
+    private volatile Instant completedAt;
+
+    private ExportJob(String id, ExportFormat format) {
+      this.id = id;
+      this.format = format;
+    }
+
+    ExportJobStatus status() {
+      ExportJobStatus status = new ExportJobStatus();
+      status.setJobId(id);
+      status.setFormat(format);
+      status.setState(state);
+      status.setTotalContacts(totalContacts);
+      status.setExportedContacts(exportedContacts);
+      status.setFileSize(fileSize);
+      status.setError(error);
+      status.setCreatedAt(createdAt);
+      status.setCompletedAt(completedAt);
+      if (state == ExportState.COMPLETED) {
+        status.setDownloadUrl(JOB_PATH + id + "/file");
+      }
+      return status;
+    }
+  }
+}
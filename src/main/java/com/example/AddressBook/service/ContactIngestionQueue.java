@@ -0,0 +1,272 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.exceptions.IngestionQueueFullException;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactFieldError;
+import com.example.AddressBook.model.ImportReport;
+import com.example.AddressBook.model.IngestionJobStatus;
+import com.example.AddressBook.model.IngestionState;
+import com.example.AddressBook.repository.ContactRepository;
+import com.example.AddressBook.validation.ContactValidator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind creation of contacts. Submitted contacts are validated, put on a bounded in-memory
+ * queue and answered right away with a job; one writer thread drains the queue and creates the
+ * contacts of many jobs together in batched transactions of up to {@code
+ * addressbook.ingestion.batch-size} contacts. A batch that fails is retried row by row, so each job
+ * reports exactly the rows that could not be created.
+ *
+ * <p>The queue holds at most {@code addressbook.ingestion.queue-capacity} contacts. A submission
+ * that does not fit as a whole is rejected, and nothing of it is queued. Queued contacts are kept
+ * in memory only: contacts still pending when the application stops are written before shutdown
+ * completes, but a crash loses them.
+ */
+@Service
+public class ContactIngestionQueue {
+
+  private static final Logger log = LoggerFactory.getLogger(ContactIngestionQueue.class);
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+  private static final String JOB_PATH = "/api/contacts/ingestContacts/";
+
+  private final ContactRepository contactRepository;
+  private final ContactValidator contactValidator;
+  private final int capacity;
+  private final int batchSize;
+  private final Duration linger;
+  private final Duration jobRetention;
+  private final BlockingQueue<QueuedContact> queue = new LinkedBlockingQueue<>();
+  private final Semaphore freeSlots;
+  private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+  private volatile boolean accepting = true;
+  private Thread writer;
+
+  public ContactIngestionQueue(
+      ContactRepository contactRepository,
+      ContactValidator contactValidator,
+      MeterRegistry meterRegistry,
+      @Value("${addressbook.ingestion.queue-capacity:50000}") int capacity,
+      @Value("${addressbook.ingestion.batch-size:1000}") int batchSize,
+      @Value("${addressbook.ingestion.linger:50ms}") Duration linger,
+      @Value("${addressbook.ingestion.job-retention:1h}") Duration jobRetention) {
+    this.contactRepository = contactRepository;
+    this.contactValidator = contactValidator;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.linger = linger;
+    this.jobRetention = jobRetention;
+    this.freeSlots = new Semaphore(capacity);
+    Gauge.builder("addressbook.ingestion.queue.size", queue, BlockingQueue::size)
+        .description("Contacts waiting to be written by the ingestion queue")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    writer = Thread.ofPlatform().name("contact-ingestion").daemon().start(this::drain);
+  }
+
+  // Stops taking submissions and gives the writer time to empty the queue.
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    accepting = false;
+    if (!writer.join(SHUTDOWN_TIMEOUT)) {
+      log.warn("Ingestion queue stopped with {} contacts still pending", queue.size());
+      writer.interrupt();
+    }
+  }
+
+  public ResponseEntity<IngestionJobStatus> submit(List<Contact> contacts) {
+    if (contacts.size() > capacity) {
+      throw new IllegalArgumentException(
+          "At most " + capacity + " contacts can be submitted at once.");
+    }
+    IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), contacts.size());
+    BitSet invalid = new BitSet(contacts.size());
+    for (ContactFieldError error : contactValidator.validate(contacts).getErrors()) {
+      if (!invalid.get(error.getIndex())) {
+        invalid.set(error.getIndex());
+        job.recordFailure(
+            error.getIndex(), error.getPin(), error.getField() + ": " + error.getMessage());
+      }
+    }
+    job.rejected = invalid.cardinality();
+    int valid = contacts.size() - job.rejected;
+    if (!accepting || !freeSlots.tryAcquire(valid)) {
+      throw new IngestionQueueFullException(valid, freeSlots.availablePermits());
+    }
+    jobs.put(job.id, job);
+    for (int i = invalid.nextClearBit(0); i < contacts.size(); i = invalid.nextClearBit(i + 1)) {
+      queue.add(new QueuedContact(job, i, contacts.get(i)));
+    }
+    return ResponseEntity.accepted().location(URI.create(JOB_PATH + job.id)).body(job.status());
+  }
+
+  public ResponseEntity<IngestionJobStatus> getJobStatus(String jobId) {
+    IngestionJob job = jobs.get(jobId);
+    return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.status());
+  }
+
+  @Scheduled(fixedDelayString = "${addressbook.ingestion.job-retention:1h}")
+  public void removeExpiredJobs() {
+    Instant expiredBefore = Instant.now().minus(jobRetention);
+    jobs.values().removeIf(job -> job.completedBefore(expiredBefore));
+  }
+
+  // Waits for a first contact, then up to the linger time for the batch to fill.
+  private void drain() {
+    List<QueuedContact> batch = new ArrayList<>(batchSize);
+    try {
+      while (accepting || !queue.isEmpty()) {
+        QueuedContact first = queue.poll(200, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (batch.size() < batchSize) {
+          queue.drainTo(batch, batchSize - batch.size());
+          long remaining = deadline - System.nanoTime();
+          if (batch.size() >= batchSize || remaining <= 0) {
+            break;
+          }
+          QueuedContact next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        try {
+          write(batch);
+        } finally {
+          // Whatever happened to the batch, its slots must not stay taken, or submit blocks.
+          freeSlots.release(batch.size());
+          batch.clear();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(List<QueuedContact> batch) {
+    try {
+      contactRepository.batchContactCreation(batch.stream().map(queued -> queued.contact).toList());
+      batch.forEach(queued -> queued.job.recordCreated());
+    } catch (DataAccessException e) {
+      log.info("Ingestion batch of {} contacts failed, retrying row by row", batch.size());
+      for (QueuedContact queued : batch) {
+        writeRow(queued);
+      }
+    } catch (RuntimeException e) {
+      log.error("Ingestion batch of {} contacts failed", batch.size(), e);
+      for (QueuedContact queued : batch) {
+        queued.job.recordFailure(queued.index, queued.contact.getPin(), e.getMessage());
+      }
+    }
+  }
+
+  private void writeRow(QueuedContact queued) {
+    Contact contact = queued.contact;
+    try {
+      contactRepository.contactCreation(
+          contact.getPin(),
+          contact.getName(),
+          contact.getSurname(),
+          contact.getGender(),
+          contact.getPhones(),
+          contact.getEmails());
+      queued.job.recordCreated();
+    } catch (DataAccessException e) {
+      queued.job.recordFailure(
+          queued.index, contact.getPin(), e.getMostSpecificCause().getMessage());
+    } catch (RuntimeException e) {
+      // Anything else fails this row only; the writer thread must keep running.
+      log.error("Ingestion of contact {} failed", contact.getPin(), e);
+      queued.job.recordFailure(queued.index, contact.getPin(), e.getMessage());
+    }
+  }
+
+  private record QueuedContact(IngestionJob job, int index, Contact contact) {}
+
+  private static final class IngestionJob {
+    private final String id;
+    private final Instant submittedAt = Instant.now();
+    private final ImportReport report;
+    // Rows that failed validation and were never queued.
+    private int rejected;
+    private Instant completedAt;
+
+    private IngestionJob(String id, int total) {
+      this.id = id;
+      this.report = new ImportReport(total);
+      completeIfDone();
+    }
+
+    synchronized void recordCreated() {
+      report.addCreated(1);
+      completeIfDone();
+    }
+
+    synchronized void recordFailure(int index, Integer pin, String error) {
+      report.addFailure(index, pin, error);
+      completeIfDone();
+    }
+
+    synchronized boolean completedBefore(Instant instant) {
+      return completedAt != null && completedAt.isBefore(instant);
+    }
+
+    synchronized IngestionJobStatus status() {
+      IngestionJobStatus status = new IngestionJobStatus();
+      status.setJobId(id);
+      status.setTotal(report.getTotal());
+      status.setCreated(report.getCreated());
+      status.setFailed(report.getFailed());
+      status.setPending(pending());
+      status.setFailures(List.copyOf(report.getFailures()));
+      status.setSubmittedAt(submittedAt);
+      status.setCompletedAt(completedAt);
+      status.setState(
+          completedAt != null
+              ? IngestionState.COMPLETED
+              : report.getCreated() + report.getFailed() == rejected
+                  ? IngestionState.QUEUED
+                  : IngestionState.RUNNING);
+      return status;
+    }
+
+    private int pending() {
+      return report.getTotal() - report.getCreated() - report.getFailed();
+    }
+
+    private void completeIfDone() {
+      if (completedAt == null && pending() == 0) {
+        completedAt = Instant.now();
+      }
+    }
+  }
+}
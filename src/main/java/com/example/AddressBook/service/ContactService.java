@@ -1,24 +1,88 @@
 package com.example.AddressBook.service;
 
+import com.example.AddressBook.exceptions.ContactVersionMismatchException;
+import com.example.AddressBook.model.BulkDeleteReport;
 import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactBatch;
+import com.example.AddressBook.model.ContactCacheStats;
+import com.example.AddressBook.model.ContactChanges;
 import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactFieldError;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.ContactPage;
 import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.ContactsVersion;
+import com.example.AddressBook.model.CsvImportReport;
 import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.ImportReport;
+import com.example.AddressBook.model.NameSearchMode;
+import com.example.AddressBook.model.ValidationReport;
 import com.example.AddressBook.repository.ContactRepository;
+import com.example.AddressBook.repository.PostgresCopyContactImporter;
+import com.example.AddressBook.repository.cache.ContactCache;
+import com.example.AddressBook.validation.ContactValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Service
 @Slf4j
 public class ContactService {
 
+  public static final int DEFAULT_PAGE_SIZE = 100;
+  public static final int MAX_PAGE_SIZE = 1000;
+  public static final int MAX_IMPORT_CHUNK_SIZE = 10000;
+  public static final int DEFAULT_DELETE_CHUNK_SIZE = 1000;
+  public static final int MAX_DELETE_CHUNK_SIZE = 10000;
+  public static final int MAX_BATCH_LOOKUP_SIZE = 1000;
+  public static final int DEFAULT_NAME_SEARCH_LIMIT = 20;
+  public static final int MAX_NAME_SEARCH_LIMIT = 100;
+  static final String NO_RECORDS_FOUND = "No records found for the given criteria.";
+  public static final MediaType APPLICATION_NDJSON =
+      MediaType.parseMediaType("application/x-ndjson");
+
   private final ContactRepository contactRepository;
+  private final PostgresCopyContactImporter csvImporter;
+  private final ContactCache contactCache;
+  private final ContactValidator contactValidator;
+  private final ObjectWriter ndjsonWriter;
+  private final int importChunkSize;
 
-  public ContactService(ContactRepository contactRepository) {
+  public ContactService(
+      ContactRepository contactRepository,
+      PostgresCopyContactImporter csvImporter,
+      ContactCache contactCache,
+      ContactValidator contactValidator,
+      ObjectMapper objectMapper,
+      @Value("${addressbook.import.chunk-size:500}") int importChunkSize) {
     this.contactRepository = contactRepository;
+    this.csvImporter = csvImporter;
+    this.contactCache = contactCache;
+    this.contactValidator = contactValidator;
+    this.ndjsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    this.importChunkSize = importChunkSize;
   }
 
   public Contact updateContactWithNewValues(Contact currentContact, Contact updateRequest) {
@@ -49,55 +113,179 @@ public class ContactService {
   }
 
   public ResponseEntity<String> updateContactAttribute(
-      Integer pin, String attribute, String oldValue, String newValue) {
-    Contact existingContact = contactRepository.getContactByPin(pin);
-    if (existingContact == null) {
-      return ResponseEntity.status(404).body("Contact with pin " + pin + " not found.");
-    }
-    if (attribute.equals("phone") && !isValidPhoneNumber(newValue)) {
-      return ResponseEntity.status(400).body("Provided phone number is not valid");
+      Integer pin, String attribute, String oldValue, String newValue, String ifMatch) {
+    String validationError = contactValidator.validateAttribute(attribute, newValue);
+    if (validationError != null) {
+      return ResponseEntity.status(400).body(validationError);
     }
-    if (attribute.equals("email") && !isValidEmail(newValue)) {
-      return ResponseEntity.status(400).body("Provided email number is not valid");
+    Long expectedVersion = ContactETags.expectedVersion(pin, ifMatch);
+    if (!contactRepository.updateContactAttribute(
+        pin, attribute, newValue, oldValue, expectedVersion)) {
+      // Nothing was written: tell a stale ETag apart from a missing contact or value.
+      if (expectedVersion != null) {
+        Long currentVersion = contactRepository.getContactVersion(pin);
+        if (currentVersion != null && !currentVersion.equals(expectedVersion)) {
+          throw new ContactVersionMismatchException(pin);
+        }
+      }
+      return ResponseEntity.status(404)
+          .body(
+              oldValue != null && (attribute.equals("email") || attribute.equals("phone"))
+                  ? NO_RECORDS_FOUND
+                  : "Contact with pin " + pin + " not found.");
     }
-    contactRepository.updateContactAttribute(pin, attribute, newValue, oldValue);
     return ResponseEntity.ok("Contact updated.");
   }
 
   public static boolean isValidPhoneNumber(String phoneNumber) {
-    String PHONE_REGEX =
-        "^\\+?[0-9]{1,4}?[-. \\(\\)]?(\\d{1,3})?[-. \\(\\)]?\\d{1,3}[-. \\(\\)]?\\d{4}$";
-    if (phoneNumber == null) {
-      return false;
-    }
-    Pattern pattern = Pattern.compile(PHONE_REGEX);
-    return pattern.matcher(phoneNumber).matches();
+    return ContactValidator.isValidPhoneNumber(phoneNumber);
   }
 
   public static boolean isValidEmail(String email) {
-    String PHONE_REGEX = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-    if (email == null) {
-      return false;
-    }
-    Pattern pattern = Pattern.compile(PHONE_REGEX);
-    return pattern.matcher(email).matches();
+    return ContactValidator.isValidEmail(email);
   }
 
+  // The ETag is derived from the versions of the listed contacts, and If-None-Match is answered
+  // from an aggregate over the contacts table without reading phones and emails.
   public ResponseEntity<List<Contact>> searchContacts(
-      String nameRequest, String surnameRequest, Gender genderRequest) {
+      String nameRequest,
+      String surnameRequest,
+      Gender genderRequest,
+      String accept,
+      String ifNoneMatch) {
+    MediaType representation = ContactETags.representation(accept);
+    if (ifNoneMatch != null) {
+      String etag =
+          ContactETags.forRepresentation(
+              ContactETags.of(
+                  contactRepository.getContactsVersion(nameRequest, surnameRequest, genderRequest)),
+              representation);
+      if (ContactETags.matches(ifNoneMatch, etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .build();
+      }
+    }
+    List<Contact> contacts;
     if (checkIfRequestParamIsSet(nameRequest, surnameRequest, genderRequest)) {
-      return ResponseEntity.ok(
-          contactRepository.searchContactsByParameter(nameRequest, surnameRequest, genderRequest));
+      contacts =
+          contactRepository.searchContactsByParameter(nameRequest, surnameRequest, genderRequest);
     } else {
-      return ResponseEntity.ok(contactRepository.getAllContacts());
+      contacts = contactRepository.getAllContacts();
+    }
+    return ResponseEntity.ok()
+        .eTag(
+            ContactETags.forRepresentation(
+                ContactETags.of(ContactsVersion.of(contacts)), representation))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(contacts);
+  }
+
+  public ResponseEntity<List<ContactMatch>> searchContactsByName(
+      String query, NameSearchMode mode, Integer limit) {
+    if (query == null || query.isBlank()) {
+      return ResponseEntity.ok(List.of());
+    }
+    int resultLimit =
+        limit == null ? DEFAULT_NAME_SEARCH_LIMIT : Math.clamp(limit, 1, MAX_NAME_SEARCH_LIMIT);
+    return ResponseEntity.ok(
+        contactRepository.searchContactsByName(query.trim(), mode, resultLimit));
+  }
+
+  public ResponseEntity<List<Contact>> findContactsByPhone(String phone) {
+    if (phone == null || phone.isBlank()) {
+      return ResponseEntity.ok(List.of());
+    }
+    return ResponseEntity.ok(contactRepository.getContactsByPhone(phone.trim()));
+  }
+
+  public ResponseEntity<List<Contact>> findContactsByEmail(String email) {
+    if (email == null || email.isBlank()) {
+      return ResponseEntity.ok(List.of());
     }
+    return ResponseEntity.ok(contactRepository.getContactsByEmail(email.trim()));
+  }
+
+  public ResponseEntity<ContactPage> searchContactsPage(
+      String nameRequest,
+      String surnameRequest,
+      Gender genderRequest,
+      Integer afterPin,
+      Integer limit) {
+    int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    List<Contact> contacts =
+        contactRepository.getContactsPage(
+            nameRequest, surnameRequest, genderRequest, afterPin, pageSize);
+    Integer nextCursor = contacts.size() == pageSize ? contacts.getLast().getPin() : null;
+    return ResponseEntity.ok(new ContactPage(contacts, nextCursor));
+  }
+
+  public ResponseEntity<StreamingResponseBody> streamContacts(
+      String nameRequest, String surnameRequest, Gender genderRequest) {
+    StreamingResponseBody body =
+        outputStream ->
+            contactRepository.streamContacts(
+                nameRequest,
+                surnameRequest,
+                genderRequest,
+                contact -> {
+                  try {
+                    ndjsonWriter.writeValue(outputStream, contact);
+                    outputStream.write('\n');
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
   }
 
-  public ResponseEntity<Contact> getContactByPin(Integer pin) {
-    return ResponseEntity.ok(contactRepository.getContactByPin(pin));
+  public ResponseEntity<Contact> getContactByPin(Integer pin, String accept, String ifNoneMatch) {
+    MediaType representation = ContactETags.representation(accept);
+    if (ifNoneMatch != null) {
+      String etag =
+          ContactETags.forRepresentation(
+              ContactETags.of(contactRepository.getContactVersion(pin)), representation);
+      if (ContactETags.matches(ifNoneMatch, etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .build();
+      }
+    }
+    Contact contact = contactRepository.getContactByPin(pin);
+    return ResponseEntity.ok()
+        .eTag(ContactETags.forRepresentation(ContactETags.of(contact.getVersion()), representation))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(contact);
+  }
+
+  public ResponseEntity<ContactBatch> getContactsByPins(List<Integer> pins) {
+    if (pins.size() > MAX_BATCH_LOOKUP_SIZE) {
+      throw new IllegalArgumentException(
+          "At most " + MAX_BATCH_LOOKUP_SIZE + " PINs can be requested at once.");
+    }
+    int[] distinctPins =
+        pins.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).distinct().toArray();
+    Map<Integer, Contact> found = new HashMap<>();
+    for (Contact contact : contactRepository.getContactsByPins(distinctPins)) {
+      found.put(contact.getPin(), contact);
+    }
+    List<Contact> contacts = new ArrayList<>(found.size());
+    List<Integer> missingPins = new ArrayList<>();
+    for (int pin : distinctPins) {
+      Contact contact = found.get(pin);
+      if (contact == null) {
+        missingPins.add(pin);
+      } else {
+        contacts.add(contact);
+      }
+    }
+    return ResponseEntity.ok(new ContactBatch(contacts, missingPins));
   }
 
   public ResponseEntity<String> createContactsUsingBody(List<Contact> contactsRequest) {
+    contactValidator.requireValid(contactsRequest);
     for (Contact contact : contactsRequest) {
       contactRepository.contactCreation(
           contact.getPin(),
@@ -110,6 +298,66 @@ public class ContactService {
     return ResponseEntity.ok("Contacts created successfully.");
   }
 
+  public ResponseEntity<ImportReport> importContacts(
+      List<Contact> contactsRequest, Integer chunkSize) {
+    int size =
+        chunkSize == null ? importChunkSize : Math.clamp(chunkSize, 1, MAX_IMPORT_CHUNK_SIZE);
+    ImportReport report = new ImportReport(contactsRequest.size());
+    ValidationReport validation = contactValidator.validate(contactsRequest);
+    BitSet invalid = new BitSet(contactsRequest.size());
+    for (ContactFieldError error : validation.getErrors()) {
+      if (!invalid.get(error.getIndex())) {
+        invalid.set(error.getIndex());
+        report.addFailure(
+            error.getIndex(), error.getPin(), error.getField() + ": " + error.getMessage());
+      }
+    }
+    List<Contact> validContacts = new ArrayList<>(contactsRequest.size() - invalid.cardinality());
+    int[] originalIndexes = new int[contactsRequest.size() - invalid.cardinality()];
+    for (int i = invalid.nextClearBit(0);
+        i < contactsRequest.size();
+        i = invalid.nextClearBit(i + 1)) {
+      originalIndexes[validContacts.size()] = i;
+      validContacts.add(contactsRequest.get(i));
+    }
+    for (int from = 0; from < validContacts.size(); from += size) {
+      List<Contact> chunk =
+          validContacts.subList(from, Math.min(from + size, validContacts.size()));
+      try {
+        contactRepository.batchContactCreation(chunk);
+        report.addCreated(chunk.size());
+      } catch (DataAccessException e) {
+        log.info("Batch of {} contacts failed, retrying row by row", chunk.size());
+        importRowByRow(chunk, from, originalIndexes, report);
+      }
+    }
+    return ResponseEntity.ok(report);
+  }
+
+  private void importRowByRow(
+      List<Contact> chunk, int offset, int[] originalIndexes, ImportReport report) {
+    for (int i = 0; i < chunk.size(); i++) {
+      Contact contact = chunk.get(i);
+      try {
+        contactRepository.contactCreation(
+            contact.getPin(),
+            contact.getName(),
+            contact.getSurname(),
+            contact.getGender(),
+            contact.getPhones(),
+            contact.getEmails());
+        report.addCreated(1);
+      } catch (DataAccessException e) {
+        report.addFailure(
+            originalIndexes[offset + i], contact.getPin(), e.getMostSpecificCause().getMessage());
+      }
+    }
+  }
+
+  public ResponseEntity<CsvImportReport> importContactsFromCsv(InputStream csv) {
+    return ResponseEntity.ok(csvImporter.importCsv(csv));
+  }
+
   public ResponseEntity<String> createContactUsingUrlParams(
       Integer pin,
       String name,
@@ -117,6 +365,14 @@ public class ContactService {
       Gender gender,
       ContactPhones phones,
       ContactEmails emails) {
+    Contact contact = new Contact();
+    contact.setPin(pin);
+    contact.setName(name);
+    contact.setSurname(surname);
+    contact.setGender(gender);
+    contact.setPhones(phones);
+    contact.setEmails(emails);
+    contactValidator.requireValid(List.of(contact));
     contactRepository.contactCreation(pin, name, surname, gender, phones, emails);
     return ResponseEntity.ok("Contact created successfully.");
   }
@@ -126,23 +382,102 @@ public class ContactService {
     return ResponseEntity.ok(returnMsg);
   }
 
-  public ResponseEntity<String> updateContact(Contact updateRequest) {
+  // Sorted so concurrent bulk deletes lock contacts in the same order.
+  public ResponseEntity<BulkDeleteReport> deleteContacts(List<Integer> pins, Integer chunkSize) {
+    int size = deleteChunkSize(chunkSize);
+    int[] distinctPins =
+        pins.stream()
+            .filter(Objects::nonNull)
+            .mapToInt(Integer::intValue)
+            .distinct()
+            .sorted()
+            .toArray();
+    BulkDeleteReport report = new BulkDeleteReport();
+    report.setInvalid(pins.size() - (int) pins.stream().filter(Objects::nonNull).count());
+    for (int from = 0; from < distinctPins.length; from += size) {
+      deleteChunk(
+          Arrays.copyOfRange(distinctPins, from, Math.min(from + size, distinctPins.length)),
+          report);
+    }
+    return ResponseEntity.ok(report);
+  }
+
+  // One pin per line; each chunk is deleted as soon as it has been read.
+  public ResponseEntity<BulkDeleteReport> deleteContacts(InputStream body, Integer chunkSize)
+      throws IOException {
+    int size = deleteChunkSize(chunkSize);
+    BulkDeleteReport report = new BulkDeleteReport();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    int[] chunk = new int[size];
+    int count = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.strip();
+      if (line.isEmpty()) {
+        continue;
+      }
+      int pin;
+      try {
+        pin = Integer.parseInt(line);
+      } catch (NumberFormatException e) {
+        report.addInvalid();
+        continue;
+      }
+      chunk[count++] = pin;
+      if (count == size) {
+        deleteChunk(Arrays.stream(chunk).distinct().sorted().toArray(), report);
+        count = 0;
+      }
+    }
+    if (count > 0) {
+      deleteChunk(Arrays.stream(chunk, 0, count).distinct().sorted().toArray(), report);
+    }
+    return ResponseEntity.ok(report);
+  }
+
+  private void deleteChunk(int[] pins, BulkDeleteReport report) {
+    report.addChunk(pins.length, contactRepository.deleteContactsByPins(pins).length);
+  }
+
+  private static int deleteChunkSize(Integer chunkSize) {
+    return chunkSize == null
+        ? DEFAULT_DELETE_CHUNK_SIZE
+        : Math.clamp(chunkSize, 1, MAX_DELETE_CHUNK_SIZE);
+  }
+
+  public ResponseEntity<String> updateContact(Contact updateRequest, String ifMatch) {
     if (updateRequest.getPin() == null) {
       return ResponseEntity.ofNullable("PIN is mandatory.");
     }
+    contactValidator.requireValidUpdate(updateRequest);
+    Long expectedVersion = ContactETags.expectedVersion(updateRequest.getPin(), ifMatch);
     Contact currentContact = contactRepository.getContactByPin(updateRequest.getPin());
+    // The unchanged fields are written back from this copy, so it must be the expected version.
+    if (expectedVersion != null && !expectedVersion.equals(currentContact.getVersion())) {
+      throw new ContactVersionMismatchException(updateRequest.getPin());
+    }
     Contact updatedContact = updateContactWithNewValues(currentContact, updateRequest);
-    contactRepository.updateContactDetails(updatedContact, updateRequest);
+    ContactChanges changes =
+        contactRepository.updateContactDetails(updatedContact, updateRequest, expectedVersion);
+    log.info("Contact {} updated: {}", updateRequest.getPin(), changes);
     return ResponseEntity.ok("Contact updated successfully!");
   }
 
+  public ResponseEntity<ContactCacheStats> getCacheStats() {
+    return ResponseEntity.ok(contactCache.stats());
+  }
+
   public ResponseEntity<String> deleteEmail(Integer pin, String email) {
-    contactRepository.deleteEmail(pin, email);
+    if (!contactRepository.deleteEmail(pin, email)) {
+      return ResponseEntity.status(404).body(NO_RECORDS_FOUND);
+    }
     return ResponseEntity.ok("Email deleted successfully.");
   }
 
   public ResponseEntity<String> deletePhone(Integer pin, String phone) {
-    contactRepository.deletePhone(pin, phone);
+    if (!contactRepository.deletePhone(pin, phone)) {
+      return ResponseEntity.status(404).body(NO_RECORDS_FOUND);
+    }
     return ResponseEntity.ok("Phone deleted successfully.");
   }
 }
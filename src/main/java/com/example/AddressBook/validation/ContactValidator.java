@@ -0,0 +1,194 @@
+package com.example.AddressBook.validation;
+
+import com.example.AddressBook.exceptions.ContactValidationException;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactFieldError;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.ValidationReport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks contacts against the same rules as the database (column lengths, NOT NULL columns and the
+ * {@code email_format} / {@code phone_number_valid} CHECK constraints) before any SQL is sent.
+ */
+@Component
+public class ContactValidator {
+
+  public static final int MAX_NAME_LENGTH = 100;
+  public static final int MAX_EMAIL_LENGTH = 255;
+  public static final int MAX_PHONE_LENGTH = 20;
+  static final int PARALLEL_THRESHOLD = 2048;
+
+  private static final Pattern PHONE_PATTERN =
+      Pattern.compile(
+          "^\\+?[0-9]{1,4}?[-. \\(\\)]?(\\d{1,3})?[-. \\(\\)]?\\d{1,3}[-. \\(\\)]?\\d{4}$");
+  private static final ThreadLocal<Matcher> PHONE_MATCHER =
+      ThreadLocal.withInitial(() -> PHONE_PATTERN.matcher(""));
+
+  public static boolean isValidPhoneNumber(String phoneNumber) {
+    if (phoneNumber == null || phoneNumber.length() > MAX_PHONE_LENGTH) {
+      return false;
+    }
+    return PHONE_MATCHER.get().reset(phoneNumber).matches();
+  }
+
+  /** Same language as {@code ^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}, without a regex. */
+  public static boolean isValidEmail(String email) {
+    if (email == null || email.length() > MAX_EMAIL_LENGTH) {
+      return false;
+    }
+    int at = email.indexOf('@');
+    int lastDot = email.lastIndexOf('.');
+    if (at < 1 || lastDot <= at + 1 || email.length() - lastDot - 1 < 2) {
+      return false;
+    }
+    for (int i = 0; i < at; i++) {
+      char c = email.charAt(i);
+      if (!isAsciiLetterOrDigit(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+        return false;
+      }
+    }
+    for (int i = at + 1; i < lastDot; i++) {
+      char c = email.charAt(i);
+      if (!isAsciiLetterOrDigit(c) && c != '.' && c != '-') {
+        return false;
+      }
+    }
+    for (int i = lastDot + 1; i < email.length(); i++) {
+      char c = email.charAt(i);
+      if (!isAsciiLetter(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Validates contacts for creation; large batches are checked in parallel. */
+  public ValidationReport validate(List<Contact> contacts) {
+    IntStream indexes = IntStream.range(0, contacts.size());
+    if (contacts.size() >= PARALLEL_THRESHOLD) {
+      indexes = indexes.parallel();
+    }
+    List<ContactFieldError> errors =
+        indexes
+            .mapToObj(index -> validateForCreation(index, contacts.get(index)))
+            .flatMap(List::stream)
+            .toList();
+    return new ValidationReport(contacts.size(), errors);
+  }
+
+  public void requireValid(List<Contact> contacts) {
+    ValidationReport report = validate(contacts);
+    if (!report.isValid()) {
+      throw new ContactValidationException(report);
+    }
+  }
+
+  /** Validates a partial update: only PIN is mandatory, provided fields must be valid. */
+  public void requireValidUpdate(Contact updateRequest) {
+    List<ContactFieldError> errors = new ArrayList<>();
+    Integer pin = updateRequest.getPin();
+    if (pin == null) {
+      errors.add(new ContactFieldError(null, null, "pin", null, "PIN is mandatory."));
+    }
+    if (updateRequest.getName() != null) {
+      checkName(errors, null, pin, "name", updateRequest.getName());
+    }
+    if (updateRequest.getSurname() != null) {
+      checkName(errors, null, pin, "surname", updateRequest.getSurname());
+    }
+    checkPhonesAndEmails(errors, null, updateRequest);
+    if (!errors.isEmpty()) {
+      throw new ContactValidationException(new ValidationReport(1, errors));
+    }
+  }
+
+  /** Returns the error message for a single attribute value, or null when it is valid. */
+  public String validateAttribute(String attribute, String value) {
+    return switch (attribute) {
+      case "name", "surname" ->
+          value == null || value.isBlank() || value.length() > MAX_NAME_LENGTH
+              ? "Provided " + attribute + " is not valid"
+              : null;
+      case "gender" -> isGender(value) ? null : "Provided gender is not valid";
+      case "phone" -> isValidPhoneNumber(value) ? null : "Provided phone number is not valid";
+      case "email" -> isValidEmail(value) ? null : "Provided email is not valid";
+      default -> "Invalid attribute type";
+    };
+  }
+
+  private List<ContactFieldError> validateForCreation(int index, Contact contact) {
+    if (contact == null) {
+      return List.of(new ContactFieldError(index, null, "contact", null, "Contact is missing."));
+    }
+    List<ContactFieldError> errors = new ArrayList<>(0);
+    Integer pin = contact.getPin();
+    if (pin == null) {
+      errors.add(new ContactFieldError(index, null, "pin", null, "PIN is mandatory."));
+    }
+    checkName(errors, index, pin, "name", contact.getName());
+    checkName(errors, index, pin, "surname", contact.getSurname());
+    checkPhonesAndEmails(errors, index, contact);
+    return errors;
+  }
+
+  private static void checkName(
+      List<ContactFieldError> errors, Integer index, Integer pin, String field, String value) {
+    if (value == null || value.isBlank()) {
+      errors.add(new ContactFieldError(index, pin, field, value, field + " is mandatory"));
+    } else if (value.length() > MAX_NAME_LENGTH) {
+      errors.add(
+          new ContactFieldError(
+              index, pin, field, value, field + " is longer than " + MAX_NAME_LENGTH));
+    }
+  }
+
+  private static void checkPhonesAndEmails(
+      List<ContactFieldError> errors, Integer index, Contact contact) {
+    if (contact.getPhones() != null) {
+      for (String phone : contact.getPhones()) {
+        if (!isValidPhoneNumber(phone)) {
+          errors.add(
+              new ContactFieldError(
+                  index, contact.getPin(), "phones", phone, "Phone number is not valid"));
+        }
+      }
+    }
+    if (contact.getEmails() != null) {
+      for (String email : contact.getEmails()) {
+        if (!isValidEmail(email)) {
+          errors.add(
+              new ContactFieldError(
+                  index, contact.getPin(), "emails", email, "Email is not valid"));
+        }
+      }
+    }
+  }
+
+  private static boolean isGender(String value) {
+    if (value == null) {
+      return false;
+    }
+    String upperCase = value.toUpperCase(Locale.ROOT);
+    for (Gender gender : Gender.values()) {
+      if (gender.name().equals(upperCase)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isAsciiLetterOrDigit(char c) {
+    return isAsciiLetter(c) || (c >= '0' && c <= '9');
+  }
+}
@@ -0,0 +1,31 @@
+CREATE TYPE gender AS ENUM ('MALE', 'FEMALE', 'OTHER');
+
+CREATE TABLE contacts (
+    pin  INT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    surname VARCHAR(100) NOT NULL,
+    gender gender
+);
+
+CREATE TABLE emails (
+    email_id SERIAL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    pin INT NOT NULL,
+    CONSTRAINT fk_pin FOREIGN KEY (pin)
+        REFERENCES contacts (pin)
+        ON DELETE CASCADE,
+    CONSTRAINT email_format CHECK (email ~* '^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$')
+);
+
+CREATE TABLE phones (
+    phone_id SERIAL PRIMARY KEY,
+    phone VARCHAR(20) NOT NULL,
+    pin INT NOT NULL,
+    CONSTRAINT fk_pin FOREIGN KEY (pin)
+        REFERENCES contacts (pin)
+        ON DELETE CASCADE
+);
+
+ALTER TABLE phones
+ADD CONSTRAINT phone_number_valid
+CHECK (phone ~ '^\+?[0-9]{1,4}?[-. \(\)]?(\d{1,3})?[-. \(\)]?\d{1,3}[-. \(\)]?\d{4}$');
@@ -0,0 +1,6 @@
+-- Trigram indexes serve ILIKE '%...%', prefix and similarity (%) searches on names
+-- without scanning the whole contacts table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS contacts_name_trgm_idx ON contacts USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS contacts_surname_trgm_idx ON contacts USING gin (surname gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- Foreign keys are not indexed by PostgreSQL. Without these, every deleted contact
+-- cascades into a sequential scan of phones and emails, and contact lookups join them
+-- by scanning.
+CREATE INDEX IF NOT EXISTS phones_pin_idx ON phones (pin);
+CREATE INDEX IF NOT EXISTS emails_pin_idx ON emails (pin);
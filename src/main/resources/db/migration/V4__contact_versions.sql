@@ -0,0 +1,7 @@
+-- Every write to a contact, its phones or its emails moves the contact to a new version.
+-- Versions come from one sequence, so they never repeat, not even for a re-created PIN,
+-- and can be used as strong ETags.
+CREATE SEQUENCE IF NOT EXISTS contact_version_seq;
+
+ALTER TABLE contacts
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT nextval('contact_version_seq');
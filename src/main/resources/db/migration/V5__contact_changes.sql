@@ -0,0 +1,33 @@
+-- Change log of contacts for incremental sync. A trigger writes one row per inserted, updated
+-- or deleted contact in the writing transaction, so no write path can commit a change without
+-- its log entry. Phone and email writes are logged through the version bump of their contact.
+-- The sequence keeps the default CACHE 1: the change feed reads its last_value to tell which
+-- sequence numbers can no longer be committed.
+CREATE SEQUENCE IF NOT EXISTS contact_change_seq;
+
+CREATE TABLE IF NOT EXISTS contact_changes (
+    seq BIGINT PRIMARY KEY DEFAULT nextval('contact_change_seq'),
+    pin INT NOT NULL,
+    operation VARCHAR(6) NOT NULL,
+    version BIGINT,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Compaction looks for a later entry of the same contact.
+CREATE INDEX IF NOT EXISTS contact_changes_pin_seq_idx ON contact_changes (pin, seq);
+
+CREATE OR REPLACE FUNCTION log_contact_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO contact_changes (pin, operation, version) VALUES (OLD.pin, 'DELETE', OLD.version);
+    ELSE
+        INSERT INTO contact_changes (pin, operation, version) VALUES (NEW.pin, 'UPSERT', NEW.version);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS contacts_change_log ON contacts;
+CREATE TRIGGER contacts_change_log
+AFTER INSERT OR DELETE OR UPDATE ON contacts
+FOR EACH ROW EXECUTE FUNCTION log_contact_change();
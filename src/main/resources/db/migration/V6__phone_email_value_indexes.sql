@@ -0,0 +1,5 @@
+-- Reverse lookups ("who owns this number/address") filter on the values themselves.
+-- Emails are compared case-insensitively, so that index is on lower(email).
+-- The pin columns used by joins and cascading deletes are indexed since V3.
+CREATE INDEX IF NOT EXISTS phones_phone_idx ON phones (phone);
+CREATE INDEX IF NOT EXISTS emails_email_idx ON emails (lower(email));
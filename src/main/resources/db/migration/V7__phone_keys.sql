@@ -0,0 +1,12 @@
+-- Canonical numeric key of each phone (its digits), written by the application. The column is
+-- added without a default, which does not rewrite the table; existing rows are keyed afterwards
+-- in batches by PhoneKeyBackfill.
+ALTER TABLE phones ADD COLUMN IF NOT EXISTS phone_key BIGINT;
+
+CREATE INDEX IF NOT EXISTS phones_phone_key_idx ON phones (phone_key);
+
+-- Rows without a key yet are found by the backfill and still looked up by their text. Both
+-- indexes shrink to nothing once every phone is keyed.
+DROP INDEX IF EXISTS phones_phone_idx;
+CREATE INDEX IF NOT EXISTS phones_unkeyed_idx ON phones (phone_id) WHERE phone_key IS NULL;
+CREATE INDEX IF NOT EXISTS phones_unkeyed_phone_idx ON phones (phone) WHERE phone_key IS NULL;
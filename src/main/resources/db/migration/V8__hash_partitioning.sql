@@ -0,0 +1,91 @@
+-- Hash partitioning of contacts, phones and emails by pin. All three tables get the same number
+-- of partitions, so a contact and its phones and emails always sit in partitions with the same
+-- remainder, and deleting a contact cascades into one partition of each table.
+--
+-- partition_contacts(n) converts the current tables in a single transaction. Every row is
+-- copied and all three tables stay locked until it commits, so it belongs in a maintenance
+-- window. Calling it again on partitioned tables does nothing. The primary keys of phones and
+-- emails must contain the partition key and become (pin, phone_id) and (pin, email_id); they
+-- lead with pin and replace phones_pin_idx and emails_pin_idx.
+CREATE OR REPLACE FUNCTION partition_contacts(partitions INT) RETURNS void AS $$
+BEGIN
+    IF partitions < 2 THEN
+        RAISE EXCEPTION 'At least 2 partitions are needed, got %', partitions;
+    END IF;
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'contacts'::regclass) THEN
+        RAISE NOTICE 'contacts is already partitioned';
+        RETURN;
+    END IF;
+
+    LOCK TABLE contacts, phones, emails IN ACCESS EXCLUSIVE MODE;
+
+    CREATE TABLE contacts_partitioned (LIKE contacts INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY HASH (pin);
+    CREATE TABLE phones_partitioned (LIKE phones INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY HASH (pin);
+    CREATE TABLE emails_partitioned (LIKE emails INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY HASH (pin);
+    FOR i IN 0 .. partitions - 1 LOOP
+        EXECUTE format(
+            'CREATE TABLE contacts_p%1$s PARTITION OF contacts_partitioned '
+                || 'FOR VALUES WITH (MODULUS %2$s, REMAINDER %1$s)', i, partitions);
+        EXECUTE format(
+            'CREATE TABLE phones_p%1$s PARTITION OF phones_partitioned '
+                || 'FOR VALUES WITH (MODULUS %2$s, REMAINDER %1$s)', i, partitions);
+        EXECUTE format(
+            'CREATE TABLE emails_p%1$s PARTITION OF emails_partitioned '
+                || 'FOR VALUES WITH (MODULUS %2$s, REMAINDER %1$s)', i, partitions);
+    END LOOP;
+
+    -- Rows are copied before keys, indexes and the change log trigger exist: the copy is not a
+    -- change, and building indexes once is cheaper than maintaining them row by row.
+    INSERT INTO contacts_partitioned SELECT * FROM contacts;
+    INSERT INTO phones_partitioned SELECT * FROM phones;
+    INSERT INTO emails_partitioned SELECT * FROM emails;
+
+    -- The id sequences would be dropped with the tables that own them.
+    ALTER SEQUENCE phones_phone_id_seq OWNED BY NONE;
+    ALTER SEQUENCE emails_email_id_seq OWNED BY NONE;
+    DROP TABLE emails, phones, contacts;
+
+    ALTER TABLE contacts_partitioned RENAME TO contacts;
+    ALTER TABLE phones_partitioned RENAME TO phones;
+    ALTER TABLE emails_partitioned RENAME TO emails;
+    ALTER SEQUENCE phones_phone_id_seq OWNED BY phones.phone_id;
+    ALTER SEQUENCE emails_email_id_seq OWNED BY emails.email_id;
+
+    ALTER TABLE contacts ADD PRIMARY KEY (pin);
+    ALTER TABLE phones ADD PRIMARY KEY (pin, phone_id);
+    ALTER TABLE emails ADD PRIMARY KEY (pin, email_id);
+    ALTER TABLE phones ADD CONSTRAINT fk_pin FOREIGN KEY (pin)
+        REFERENCES contacts (pin) ON DELETE CASCADE;
+    ALTER TABLE emails ADD CONSTRAINT fk_pin FOREIGN KEY (pin)
+        REFERENCES contacts (pin) ON DELETE CASCADE;
+
+    -- The indexes of V2, V6 and V7, built on every partition.
+    CREATE INDEX contacts_name_trgm_idx ON contacts USING gin (name gin_trgm_ops);
+    CREATE INDEX contacts_surname_trgm_idx ON contacts USING gin (surname gin_trgm_ops);
+    CREATE INDEX emails_email_idx ON emails (lower(email));
+    CREATE INDEX phones_phone_key_idx ON phones (phone_key);
+    CREATE INDEX phones_unkeyed_idx ON phones (phone_id) WHERE phone_key IS NULL;
+    CREATE INDEX phones_unkeyed_phone_idx ON phones (phone) WHERE phone_key IS NULL;
+
+    CREATE TRIGGER contacts_change_log
+    AFTER INSERT OR DELETE OR UPDATE ON contacts
+    FOR EACH ROW EXECUTE FUNCTION log_contact_change();
+
+    ANALYZE contacts;
+    ANALYZE phones;
+    ANALYZE emails;
+END;
+$$ LANGUAGE plpgsql;
+
+-- spring.flyway.placeholders.contact_partitions partitions the tables as part of this migration,
+-- which is immediate on a new database. 0 keeps them as they are.
+DO $$
+BEGIN
+    IF ${contact_partitions} > 0 THEN
+        PERFORM partition_contacts(${contact_partitions});
+    END IF;
+END;
+$$;
@@ -0,0 +1,83 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.repository.JdbcContactRepository;
+import com.example.AddressBook.repository.cache.CachingContactRepository;
+import com.example.AddressBook.repository.cache.ContactCache;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingContactRepositoryTest {
+
+  private JdbcContactRepository jdbcContactRepository;
+  private ContactCache contactCache;
+  private CachingContactRepository cachingContactRepository;
+
+  @BeforeEach
+  public void setUp() {
+    jdbcContactRepository = mock(JdbcContactRepository.class);
+    contactCache = new ContactCache(100, Duration.ofMinutes(10));
+    cachingContactRepository = new CachingContactRepository(jdbcContactRepository, contactCache);
+
+    Contact contact = new Contact();
+    contact.setPin(1234);
+    contact.setName("Test");
+    contact.setSurname("Test");
+    ContactPhones phones = new ContactPhones();
+    phones.add("0991234567");
+    contact.setPhones(phones);
+    when(jdbcContactRepository.getContactByPin(1234)).thenReturn(contact);
+  }
+
+  @Test
+  public void testRepeatedLookupIsServedFromCache() {
+    cachingContactRepository.getContactByPin(1234);
+    cachingContactRepository.getContactByPin(1234);
+
+    verify(jdbcContactRepository, times(1)).getContactByPin(1234);
+    assertEquals(1, contactCache.stats().getHitCount());
+    assertEquals(1, contactCache.stats().getMissCount());
+  }
+
+  @Test
+  public void testCallerChangesDoNotLeakIntoCache() {
+    Contact first = cachingContactRepository.getContactByPin(1234);
+    first.setName("Changed");
+    first.getPhones().clear();
+
+    Contact second = cachingContactRepository.getContactByPin(1234);
+    assertEquals("Test", second.getName());
+    assertEquals(1, second.getPhones().size());
+  }
+
+  @Test
+  public void testWriteInvalidatesOnlyThatPin() {
+    when(jdbcContactRepository.getContactByPin(5678)).thenReturn(new Contact());
+    cachingContactRepository.getContactByPin(1234);
+    cachingContactRepository.getContactByPin(5678);
+
+    cachingContactRepository.updateContactAttribute(1234, "name", "New", null, null);
+    cachingContactRepository.getContactByPin(1234);
+    cachingContactRepository.getContactByPin(5678);
+
+    verify(jdbcContactRepository, times(2)).getContactByPin(1234);
+    verify(jdbcContactRepository, times(1)).getContactByPin(5678);
+  }
+
+  @Test
+  public void testFailedWriteStillInvalidates() {
+    cachingContactRepository.getContactByPin(1234);
+    doThrow(new RuntimeException("boom")).when(jdbcContactRepository).deleteEmail(1234, "a@b.hr");
+
+    assertThrows(
+        RuntimeException.class, () -> cachingContactRepository.deleteEmail(1234, "a@b.hr"));
+    cachingContactRepository.getContactByPin(1234);
+
+    verify(jdbcContactRepository, times(2)).getContactByPin(1234);
+  }
+}
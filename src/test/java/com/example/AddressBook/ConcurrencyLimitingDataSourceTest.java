@@ -0,0 +1,56 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.concurrency.ConcurrencyLimitingDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimitingDataSourceTest {
+
+  private DataSource target;
+  private ConcurrencyLimitingDataSource dataSource;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    target = mock(DataSource.class);
+    when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    dataSource = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(50));
+  }
+
+  @Test
+  public void testPermitIsReturnedOnceWhenConnectionIsClosed() throws SQLException {
+    Connection first = dataSource.getConnection();
+    dataSource.getConnection();
+    assertEquals(0, dataSource.getAvailablePermits());
+
+    first.close();
+    first.close();
+
+    assertEquals(1, dataSource.getAvailablePermits());
+  }
+
+  @Test
+  public void testTimesOutWhenNoPermitIsFree() throws SQLException {
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    verify(target, times(2)).getConnection();
+  }
+
+  @Test
+  public void testPermitIsReturnedWhenPoolFails() throws SQLException {
+    when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+
+    assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+    assertEquals(2, dataSource.getAvailablePermits());
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.model.ContactChange;
+import com.example.AddressBook.model.ContactChangePage;
+import com.example.AddressBook.model.ContactChangeType;
+import com.example.AddressBook.repository.ContactChangeRepository;
+import com.example.AddressBook.service.ContactChangeFeed;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+public class ContactChangeFeedTest {
+
+  private final ContactChangeRepository changeRepository = mock(ContactChangeRepository.class);
+  private final ContactChangeFeed changeFeed =
+      new ContactChangeFeed(changeRepository, Duration.ofDays(7));
+
+  @Test
+  public void testChangesOfRunningTransactionsAreHeldBack() {
+    // Sequence 5 is handed out while transaction 100 is running.
+    when(changeRepository.getLastSequenceValue()).thenReturn(5L);
+    when(changeRepository.getTransactionBounds()).thenReturn(new long[] {100, 101});
+
+    assertEquals(0, page(changeFeed.getChanges(null, null, null)).getNextSequence());
+    verify(changeRepository, never()).getChanges(anyLong(), anyLong(), anyInt());
+
+    // Transaction 100 has ended, so nothing up to sequence 5 can still be committed.
+    when(changeRepository.getLastSequenceValue()).thenReturn(7L);
+    when(changeRepository.getTransactionBounds()).thenReturn(new long[] {101, 103});
+    when(changeRepository.getChanges(0, 5, 100)).thenReturn(List.of(change(3), change(5)));
+
+    ContactChangePage page = page(changeFeed.getChanges(0L, null, null));
+
+    assertEquals(2, page.getChanges().size());
+    assertEquals(5, page.getNextSequence());
+  }
+
+  @Test
+  public void testFullPageContinuesAfterItsLastChange() {
+    when(changeRepository.getLastSequenceValue()).thenReturn(10L);
+    when(changeRepository.getTransactionBounds()).thenReturn(new long[] {50, 50});
+    when(changeRepository.getChanges(0, 10, 2)).thenReturn(List.of(change(1), change(4)));
+
+    assertEquals(4, page(changeFeed.getChanges(0L, 2, null)).getNextSequence());
+  }
+
+  @Test
+  public void testWaitingConsumerIsAnsweredWhenChangesSettle() {
+    when(changeRepository.getLastSequenceValue()).thenReturn(0L);
+    when(changeRepository.getTransactionBounds()).thenReturn(new long[] {50, 50});
+
+    DeferredResult<ResponseEntity<ContactChangePage>> result = changeFeed.getChanges(0L, null, 30);
+    assertFalse(result.hasResult());
+
+    when(changeRepository.getLastSequenceValue()).thenReturn(1L);
+    when(changeRepository.getChanges(0, 1, 100)).thenReturn(List.of(change(1)));
+    changeFeed.wakeWaiters();
+
+    assertEquals(1, page(result).getChanges().size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ContactChangePage page(DeferredResult<ResponseEntity<ContactChangePage>> result) {
+    assertTrue(result.hasResult());
+    return ((ResponseEntity<ContactChangePage>) result.getResult()).getBody();
+  }
+
+  private static ContactChange change(long sequence) {
+    ContactChange change = new ContactChange();
+    change.setSequence(sequence);
+    change.setPin(1000 + (int) sequence);
+    change.setType(ContactChangeType.UPSERT);
+    return change;
+  }
+}
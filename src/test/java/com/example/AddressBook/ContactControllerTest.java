@@ -1,15 +1,24 @@
 package com.example.AddressBook;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactMatch;
+import com.example.AddressBook.model.ContactPage;
 import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.CsvImportReport;
 import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.model.ImportReport;
+import com.example.AddressBook.model.NameSearchMode;
 import com.example.AddressBook.service.ContactService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.io.InputStream;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -85,6 +94,60 @@ public class ContactControllerTest {
     verify(contactService, times(0)).createContactsUsingBody(contactsRequest);
   }
 
+  @Test
+  public void testImportContactsReportsFailedRows() throws Exception {
+    Contact testContact = new Contact();
+    testContact.setPin(1234);
+    testContact.setName("Test");
+    testContact.setSurname("Test");
+
+    List<Contact> contactsRequest = List.of(testContact, testContact);
+    ImportReport report = new ImportReport(2);
+    report.addCreated(1);
+    report.addFailure(1, 1234, "duplicate key value violates unique constraint");
+
+    when(contactService.importContacts(contactsRequest, 100)).thenReturn(ResponseEntity.ok(report));
+
+    mockMvc
+        .perform(
+            post(URL + "/contacts/importContacts")
+                .param("chunkSize", "100")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(contactsRequest)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.failures[0].index").value(1))
+        .andExpect(jsonPath("$.failures[0].pin").value(1234));
+
+    verify(contactService, times(1)).importContacts(contactsRequest, 100);
+  }
+
+  @Test
+  public void testImportContactsFromCsvSuccess() throws Exception {
+    CsvImportReport report = new CsvImportReport();
+    report.setRowsRead(1);
+    report.setContactsCreated(1);
+    report.setPhonesCreated(2);
+
+    when(contactService.importContactsFromCsv(any(InputStream.class)))
+        .thenReturn(ResponseEntity.ok(report));
+
+    mockMvc
+        .perform(
+            post(URL + "/contacts/importCsv")
+                .contentType("text/csv")
+                .content(
+                    "pin,name,surname,gender,phones,emails\n"
+                        + "1234,Test,Test,FEMALE,0991234567;0997654321,\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.rowsRead").value(1))
+        .andExpect(jsonPath("$.contactsCreated").value(1))
+        .andExpect(jsonPath("$.phonesCreated").value(2));
+
+    verify(contactService, times(1)).importContactsFromCsv(any(InputStream.class));
+  }
+
   @Test
   public void testCreateContactUsingUrlParamsSuccess() throws Exception {
     Integer pin = 1234;
@@ -147,7 +210,8 @@ public class ContactControllerTest {
     mockContact.setSurname("test");
     mockContact.setGender(Gender.FEMALE);
 
-    when(contactService.getContactByPin(pin)).thenReturn(ResponseEntity.ok(mockContact));
+    when(contactService.getContactByPin(pin, null, null))
+        .thenReturn(ResponseEntity.ok(mockContact));
 
     mockMvc
         .perform(get(URL + "/contacts/findContact/{pin}", pin))
@@ -157,14 +221,40 @@ public class ContactControllerTest {
         .andExpect(jsonPath("$.surname").value("test"))
         .andExpect(jsonPath("$.gender").value("FEMALE"));
 
-    verify(contactService, times(1)).getContactByPin(pin);
+    verify(contactService, times(1)).getContactByPin(pin, null, null);
+  }
+
+  @Test
+  public void testSearchContactsAsCbor() throws Exception {
+    Contact mockContact = new Contact();
+    mockContact.setPin(1001);
+    mockContact.setName("test");
+    mockContact.setSurname("test");
+    mockContact.setGender(Gender.MALE);
+
+    when(contactService.searchContacts(null, null, null, null, null))
+        .thenReturn(ResponseEntity.ok(List.of(mockContact)));
+
+    byte[] body =
+        mockMvc
+            .perform(get(URL + "/contacts/findContacts").accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    Contact[] contacts = new CBORMapper().readValue(body, Contact[].class);
+    assertEquals(1, contacts.length);
+    assertEquals(1001, contacts[0].getPin());
+    assertEquals(Gender.MALE, contacts[0].getGender());
   }
 
   @Test
   public void testGetContactByPinNotFound() throws Exception {
     Integer pin = 123456;
 
-    when(contactService.getContactByPin(pin))
+    when(contactService.getContactByPin(pin, null, null))
         .thenThrow(
             new EmptyResultDataAccessException("No records found for the given criteria.", 1));
 
@@ -173,7 +263,45 @@ public class ContactControllerTest {
         .andExpect(status().isNotFound())
         .andExpect(content().string("No records found for the given criteria."));
 
-    verify(contactService, times(1)).getContactByPin(pin);
+    verify(contactService, times(1)).getContactByPin(pin, null, null);
+  }
+
+  @Test
+  public void testSearchContactsPageSuccess() throws Exception {
+    Contact mockContact = new Contact();
+    mockContact.setPin(1001);
+    mockContact.setName("test");
+    mockContact.setSurname("test");
+
+    when(contactService.searchContactsPage(null, null, null, 1000, 1))
+        .thenReturn(ResponseEntity.ok(new ContactPage(List.of(mockContact), 1001)));
+
+    mockMvc
+        .perform(get(URL + "/contacts/findContactsPage").param("after", "1000").param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.contacts[0].pin").value(1001))
+        .andExpect(jsonPath("$.nextCursor").value(1001));
+
+    verify(contactService, times(1)).searchContactsPage(null, null, null, 1000, 1);
+  }
+
+  @Test
+  public void testSearchContactsByNameFuzzy() throws Exception {
+    Contact mockContact = new Contact();
+    mockContact.setPin(1001);
+    mockContact.setName("Ivana");
+    mockContact.setSurname("Horvat");
+
+    when(contactService.searchContactsByName("Ivna", NameSearchMode.FUZZY, null))
+        .thenReturn(ResponseEntity.ok(List.of(new ContactMatch(mockContact, 0.5))));
+
+    mockMvc
+        .perform(get(URL + "/contacts/searchByName").param("query", "Ivna").param("mode", "FUZZY"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].contact.name").value("Ivana"))
+        .andExpect(jsonPath("$[0].score").value(0.5));
+
+    verify(contactService, times(1)).searchContactsByName("Ivna", NameSearchMode.FUZZY, null);
   }
 
   @Test
@@ -184,7 +312,7 @@ public class ContactControllerTest {
     updateRequest.setSurname("UpdatedSurname");
     updateRequest.setGender(Gender.MALE);
 
-    when(contactService.updateContact(updateRequest))
+    when(contactService.updateContact(updateRequest, null))
         .thenReturn(ResponseEntity.status(HttpStatus.OK).body("Contact updated successfully"));
 
     String jsonRequest = objectMapper.writeValueAsString(updateRequest);
@@ -196,7 +324,7 @@ public class ContactControllerTest {
                 .content(jsonRequest))
         .andExpect(status().isOk())
         .andExpect(content().string("Contact updated successfully"));
-    verify(contactService, times(1)).updateContact(updateRequest);
+    verify(contactService, times(1)).updateContact(updateRequest, null);
   }
 
   @Test
@@ -207,7 +335,7 @@ public class ContactControllerTest {
     updateRequest.setSurname("UpdatedSurname");
     updateRequest.setGender(Gender.MALE);
 
-    when(contactService.updateContact(updateRequest))
+    when(contactService.updateContact(updateRequest, null))
         .thenThrow(
             new EmptyResultDataAccessException("No records found for the given criteria.", 1));
 
@@ -220,7 +348,7 @@ public class ContactControllerTest {
                 .content(jsonRequest))
         .andExpect(status().isNotFound())
         .andExpect(content().string("No records found for the given criteria."));
-    verify(contactService, times(1)).updateContact(updateRequest);
+    verify(contactService, times(1)).updateContact(updateRequest, null);
   }
 
   @Test
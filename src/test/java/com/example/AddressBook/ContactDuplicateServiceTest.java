@@ -0,0 +1,83 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.model.DuplicateScanState;
+import com.example.AddressBook.model.DuplicateScanStatus;
+import com.example.AddressBook.repository.ContactRepository;
+import com.example.AddressBook.service.ContactDuplicateService;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class ContactDuplicateServiceTest {
+
+  private final ContactRepository contactRepository = mock(ContactRepository.class);
+  private ContactDuplicateService duplicateService;
+
+  @BeforeEach
+  public void setUp() {
+    duplicateService =
+        new ContactDuplicateService(contactRepository, 0.7, 1000, 50, 2, Duration.ZERO);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    duplicateService.stop();
+  }
+
+  @Test
+  public void testScanWhileOneIsRunningReturnsTheRunningScan() throws Exception {
+    CountDownLatch scanning = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              scanning.await();
+              return null;
+            })
+        .when(contactRepository)
+        .streamContacts(any(), any(), any(), any());
+
+    ResponseEntity<DuplicateScanStatus> first = duplicateService.startScan(null);
+    ResponseEntity<DuplicateScanStatus> second = duplicateService.startScan(0.9);
+    scanning.countDown();
+
+    assertEquals(HttpStatus.ACCEPTED, first.getStatusCode());
+    assertEquals(HttpStatus.CONFLICT, second.getStatusCode());
+    assertEquals(first.getBody().getJobId(), second.getBody().getJobId());
+    assertEquals(first.getHeaders().getLocation(), second.getHeaders().getLocation());
+
+    awaitCompletion(first.getBody().getJobId());
+    ResponseEntity<DuplicateScanStatus> next = duplicateService.startScan(null);
+    assertEquals(HttpStatus.ACCEPTED, next.getStatusCode());
+    awaitCompletion(next.getBody().getJobId());
+    verify(contactRepository, times(2)).streamContacts(any(), any(), any(), any());
+  }
+
+  @Test
+  public void testExpiredScansAreRemoved() throws Exception {
+    String jobId = duplicateService.startScan(null).getBody().getJobId();
+    awaitCompletion(jobId);
+
+    duplicateService.removeExpiredScans();
+
+    assertEquals(HttpStatus.NOT_FOUND, duplicateService.getScan(jobId, null, null).getStatusCode());
+  }
+
+  private void awaitCompletion(String jobId) throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      DuplicateScanStatus status = duplicateService.getScan(jobId, null, null).getBody();
+      if (status.getCompletedAt() != null) {
+        assertEquals(DuplicateScanState.COMPLETED, status.getState());
+        return;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Scan " + jobId + " did not complete");
+  }
+}
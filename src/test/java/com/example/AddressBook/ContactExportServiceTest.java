@@ -0,0 +1,161 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.AddressBook.controller.ContactController;
+import com.example.AddressBook.exceptions.ExportQueueFullException;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.ContactsVersion;
+import com.example.AddressBook.model.ExportFormat;
+import com.example.AddressBook.model.ExportJobStatus;
+import com.example.AddressBook.model.ExportState;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.repository.ContactRepository;
+import com.example.AddressBook.service.ContactExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class ContactExportServiceTest {
+
+  @TempDir private Path directory;
+
+  private final ContactRepository contactRepository = mock(ContactRepository.class);
+  private ContactExportService exportService;
+
+  @AfterEach
+  public void tearDown() {
+    exportService.stop();
+  }
+
+  @Test
+  public void testCsvExportIsStreamedAndServedInRanges() throws Exception {
+    exportService =
+        new ContactExportService(
+            contactRepository, new ObjectMapper(), directory, Duration.ofHours(1), 1, 10);
+    when(contactRepository.getContactsVersion(null, null, null))
+        .thenReturn(new ContactsVersion(2, 2, 3));
+    doAnswer(
+            invocation -> {
+              Consumer<Contact> consumer = invocation.getArgument(3);
+              consumer.accept(contact(1001, "Ana", Gender.FEMALE, "0991234567", "0987654321"));
+              consumer.accept(contact(1002, "Ivan, Jr.", null));
+              return null;
+            })
+        .when(contactRepository)
+        .streamContacts(any(), any(), any(), any());
+
+    String jobId = exportService.startExport(ExportFormat.CSV).getBody().getJobId();
+    ExportJobStatus status = awaitCompletion(jobId);
+
+    assertEquals(ExportState.COMPLETED, status.getState());
+    assertEquals(2, status.getExportedContacts());
+    assertEquals("/api/contacts/exports/" + jobId + "/file", status.getDownloadUrl());
+
+    MockMvc mockMvc =
+        MockMvcBuilders.standaloneSetup(
+                new ContactController(null, null, null, exportService, null))
+            .build();
+    byte[] file =
+        mockMvc
+            .perform(get(status.getDownloadUrl()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    assertEquals(
+        "pin,name,surname,gender,phones,emails\n"
+            + "1001,Ana,Surname,FEMALE,0991234567;0987654321,\n"
+            + "1002,\"Ivan, Jr.\",Surname,,,\n",
+        gunzip(file));
+
+    byte[] rest =
+        mockMvc
+            .perform(get(status.getDownloadUrl()).header(HttpHeaders.RANGE, "bytes=10-"))
+            .andExpect(status().isPartialContent())
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    assertArrayEquals(Arrays.copyOfRange(file, 10, file.length), rest);
+  }
+
+  @Test
+  public void testExportsBeyondTheQueueAreRejected() throws Exception {
+    exportService =
+        new ContactExportService(
+            contactRepository, new ObjectMapper(), directory, Duration.ZERO, 1, 1);
+    when(contactRepository.getContactsVersion(null, null, null))
+        .thenReturn(new ContactsVersion(0, 0, 0));
+    CountDownLatch exporting = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              exporting.await();
+              return null;
+            })
+        .when(contactRepository)
+        .streamContacts(any(), any(), any(), any());
+
+    String running = exportService.startExport(ExportFormat.CSV).getBody().getJobId();
+    String queued = exportService.startExport(ExportFormat.NDJSON).getBody().getJobId();
+    assertThrows(ExportQueueFullException.class, () -> exportService.startExport(ExportFormat.CSV));
+
+    exporting.countDown();
+    awaitCompletion(running);
+    awaitCompletion(queued);
+    exportService.removeExpiredExports();
+
+    assertEquals(HttpStatus.NOT_FOUND, exportService.getExportStatus(running).getStatusCode());
+    assertEquals(HttpStatus.NOT_FOUND, exportService.getExportStatus(queued).getStatusCode());
+  }
+
+  private ExportJobStatus awaitCompletion(String jobId) throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      ExportJobStatus status = exportService.getExportStatus(jobId).getBody();
+      if (status.getCompletedAt() != null) {
+        return status;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Export " + jobId + " did not complete");
+  }
+
+  private static String gunzip(byte[] bytes) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static Contact contact(int pin, String name, Gender gender, String... phones) {
+    Contact contact = new Contact();
+    contact.setPin(pin);
+    contact.setName(name);
+    contact.setSurname("Surname");
+    contact.setGender(gender);
+    ContactPhones contactPhones = new ContactPhones();
+    contactPhones.addAll(Arrays.asList(phones));
+    contact.setPhones(contactPhones);
+    contact.setEmails(new ContactEmails());
+    return contact;
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.exceptions.IngestionQueueFullException;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.IngestionJobStatus;
+import com.example.AddressBook.model.IngestionState;
+import com.example.AddressBook.repository.ContactRepository;
+import com.example.AddressBook.service.ContactIngestionQueue;
+import com.example.AddressBook.validation.ContactValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class ContactIngestionQueueTest {
+
+  private final ContactRepository contactRepository = mock(ContactRepository.class);
+  private ContactIngestionQueue ingestionQueue;
+
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    ingestionQueue.stop();
+  }
+
+  @Test
+  public void testJobsAreWrittenTogetherAndReportFailedRows() throws Exception {
+    start(10);
+    doThrow(new DuplicateKeyException("duplicate key"))
+        .when(contactRepository)
+        .batchContactCreation(anyList());
+    doThrow(new DuplicateKeyException("duplicate key"))
+        .when(contactRepository)
+        .contactCreation(eq(1002), any(), any(), any(), any(), any());
+
+    ResponseEntity<IngestionJobStatus> first =
+        ingestionQueue.submit(List.of(contact(1001), contact(1002)));
+    ResponseEntity<IngestionJobStatus> second =
+        ingestionQueue.submit(List.of(contact(1003), contact(null)));
+
+    assertEquals(HttpStatus.ACCEPTED, first.getStatusCode());
+    assertEquals(
+        "/api/contacts/ingestContacts/" + first.getBody().getJobId(),
+        first.getHeaders().getLocation().toString());
+    IngestionJobStatus firstJob = awaitCompletion(first.getBody().getJobId());
+    IngestionJobStatus secondJob = awaitCompletion(second.getBody().getJobId());
+
+    assertEquals(1, firstJob.getCreated());
+    assertEquals(1, firstJob.getFailed());
+    assertEquals(1, firstJob.getFailures().getFirst().getIndex());
+    assertEquals(1, secondJob.getCreated());
+    assertEquals(1, secondJob.getFailures().getFirst().getIndex());
+    verify(contactRepository, atLeastOnce()).batchContactCreation(anyList());
+  }
+
+  @Test
+  public void testUnexpectedRowFailureKeepsTheWriterRunning() throws Exception {
+    start(2);
+    doThrow(new DuplicateKeyException("duplicate key"))
+        .when(contactRepository)
+        .batchContactCreation(anyList());
+    doThrow(new IllegalStateException("no transaction"))
+        .when(contactRepository)
+        .contactCreation(eq(1001), any(), any(), any(), any(), any());
+
+    IngestionJobStatus failed =
+        awaitCompletion(
+            ingestionQueue.submit(List.of(contact(1001), contact(1002))).getBody().getJobId());
+    IngestionJobStatus next =
+        awaitCompletion(
+            ingestionQueue.submit(List.of(contact(1003), contact(1004))).getBody().getJobId());
+
+    assertEquals(1, failed.getCreated());
+    assertEquals("no transaction", failed.getFailures().getFirst().getError());
+    assertEquals(2, next.getCreated());
+  }
+
+  @Test
+  public void testSubmissionThatDoesNotFitIsRejectedWhole() throws Exception {
+    start(2);
+    CountDownLatch writing = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              writing.await();
+              return null;
+            })
+        .when(contactRepository)
+        .batchContactCreation(anyList());
+
+    try {
+      ingestionQueue.submit(List.of(contact(1001)));
+
+      assertThrows(
+          IngestionQueueFullException.class,
+          () -> ingestionQueue.submit(List.of(contact(1002), contact(1003))));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> ingestionQueue.submit(List.of(contact(1), contact(2), contact(3))));
+    } finally {
+      writing.countDown();
+    }
+  }
+
+  private void start(int capacity) {
+    ingestionQueue =
+        new ContactIngestionQueue(
+            contactRepository,
+            new ContactValidator(),
+            new SimpleMeterRegistry(),
+            capacity,
+            100,
+            Duration.ofMillis(20),
+            Duration.ofHours(1));
+    ingestionQueue.start();
+  }
+
+  private IngestionJobStatus awaitCompletion(String jobId) throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      IngestionJobStatus status = ingestionQueue.getJobStatus(jobId).getBody();
+      if (status.getState() == IngestionState.COMPLETED) {
+        return status;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Job " + jobId + " did not complete");
+  }
+
+  private static Contact contact(Integer pin) {
+    Contact contact = new Contact();
+    contact.setPin(pin);
+    contact.setName("Name");
+    contact.setSurname("Surname");
+    return contact;
+  }
+}
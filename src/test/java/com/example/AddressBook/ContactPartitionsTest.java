@@ -0,0 +1,179 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.metrics.SqlStatementCounter;
+import com.example.AddressBook.metrics.StatementCountingDataSource;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.repository.ContactPartitions;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class ContactPartitionsTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private ContactPartitions partitions;
+
+  @BeforeEach
+  public void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    partitions = new ContactPartitions(jdbcTemplate, 3);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    partitions.stop();
+  }
+
+  @Test
+  public void testUnpartitionedTablesDoNotFanOut() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+
+    partitions.refresh();
+
+    assertTrue(partitions.getPartitions().isEmpty());
+    assertFalse(partitions.canFanOut());
+  }
+
+  @Test
+  public void testPartitionsAreQueriedInParallelAndMergedByPin() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(List.of("contacts_p0", "contacts_p1", "contacts_p2"));
+    partitions.refresh();
+    Map<String, List<Contact>> rows =
+        Map.of(
+            "contacts_p0", contacts(2, 5, 9),
+            "contacts_p1", contacts(),
+            "contacts_p2", contacts(1, 3, 4, 10));
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    List<Contact> merged =
+        partitions.fanOut(
+            partition -> {
+              threads.add(Thread.currentThread().getName());
+              return rows.get(partition);
+            });
+
+    assertTrue(partitions.canFanOut());
+    assertEquals(List.of(1, 2, 3, 4, 5, 9, 10), merged.stream().map(Contact::getPin).toList());
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("partition-fan-out-")));
+  }
+
+  @Test
+  public void testFailingPartitionFailsTheRead() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(List.of("contacts_p0", "contacts_p1"));
+    partitions.refresh();
+
+    assertThrows(
+        QueryTimeoutException.class,
+        () ->
+            partitions.fanOut(
+                partition -> {
+                  if (partition.equals("contacts_p1")) {
+                    throw new QueryTimeoutException("canceling statement due to timeout");
+                  }
+                  return contacts(1);
+                }));
+  }
+
+  @Test
+  public void testFailingPartitionInterruptsTheOthers() throws Exception {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(List.of("contacts_p0", "contacts_p1"));
+    partitions.refresh();
+    CountDownLatch slowStarted = new CountDownLatch(1);
+    CountDownLatch slowInterrupted = new CountDownLatch(1);
+
+    assertThrows(
+        QueryTimeoutException.class,
+        () ->
+            partitions.fanOut(
+                partition -> {
+                  if (partition.equals("contacts_p0")) {
+                    slowStarted.countDown();
+                    try {
+                      new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                      slowInterrupted.countDown();
+                    }
+                    return contacts(1);
+                  }
+                  awaitUninterruptibly(slowStarted);
+                  throw new QueryTimeoutException("canceling statement due to timeout");
+                }));
+    assertTrue(slowInterrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testFanOutStatementsAreCountedForTheCaller() throws SQLException {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(List.of("contacts_p0", "contacts_p1", "contacts_p2"));
+    partitions.refresh();
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    JdbcTemplate counted = new JdbcTemplate(new StatementCountingDataSource(dataSource));
+
+    SqlStatementCounter.start();
+    try {
+      partitions.fanOut(
+          partition -> {
+            counted.update("DELETE FROM " + partition + " WHERE pin = ?", 0);
+            return contacts();
+          });
+    } finally {
+      assertEquals(3, SqlStatementCounter.stop());
+    }
+  }
+
+  @Test
+  public void testCatalogErrorKeepsKnownPartitions() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(List.of("contacts_p0", "contacts_p1"))
+        .thenThrow(new QueryTimeoutException("canceling statement due to timeout"));
+
+    partitions.refresh();
+    partitions.refresh();
+
+    assertEquals(List.of("contacts_p0", "contacts_p1"), partitions.getPartitions());
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static List<Contact> contacts(int... pins) {
+    return IntStream.of(pins)
+        .mapToObj(
+            pin -> {
+              Contact contact = new Contact();
+              contact.setPin(pin);
+              return contact;
+            })
+        .toList();
+  }
+}
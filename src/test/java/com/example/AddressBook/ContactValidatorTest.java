@@ -0,0 +1,111 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.exceptions.ContactValidationException;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactFieldError;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.ValidationReport;
+import com.example.AddressBook.validation.ContactValidator;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ContactValidatorTest {
+
+  private final ContactValidator contactValidator = new ContactValidator();
+
+  @Test
+  public void testEmailValidationMatchesDatabaseConstraint() {
+    assertTrue(ContactValidator.isValidEmail("leonard.titlic@gmail.com"));
+    assertTrue(ContactValidator.isValidEmail("a+b_c%d@sub.example.hr"));
+    assertFalse(ContactValidator.isValidEmail("@gmail.com"));
+    assertFalse(ContactValidator.isValidEmail("leonard@gmail"));
+    assertFalse(ContactValidator.isValidEmail("leonard@.com"));
+    assertFalse(ContactValidator.isValidEmail("leonard@gmail.c"));
+    assertFalse(ContactValidator.isValidEmail("leonard@gmail.c0m"));
+    assertFalse(ContactValidator.isValidEmail("leo@nard@gmail.com"));
+    assertFalse(ContactValidator.isValidEmail("leo nard@gmail.com"));
+    assertFalse(ContactValidator.isValidEmail(null));
+  }
+
+  @Test
+  public void testPhoneValidation() {
+    assertTrue(ContactValidator.isValidPhoneNumber("0997899621"));
+    assertTrue(ContactValidator.isValidPhoneNumber("+385 1 456-7890"));
+    assertFalse(ContactValidator.isValidPhoneNumber("not a phone"));
+    assertFalse(ContactValidator.isValidPhoneNumber("123"));
+    assertFalse(ContactValidator.isValidPhoneNumber(null));
+  }
+
+  @Test
+  public void testValidateReportsEveryInvalidField() {
+    Contact valid = contact(1, "Ivana", "Horvat", "0997899621", "ivana@example.com");
+    Contact invalid = contact(null, "", "Kovač", "not a phone", "not an email");
+
+    ValidationReport report = contactValidator.validate(List.of(valid, invalid));
+
+    assertEquals(2, report.getChecked());
+    assertFalse(report.isValid());
+    assertEquals(
+        List.of("pin", "name", "phones", "emails"),
+        report.getErrors().stream().map(ContactFieldError::getField).toList());
+    assertTrue(report.getErrors().stream().allMatch(error -> error.getIndex() == 1));
+  }
+
+  @Test
+  public void testLargeBatchesKeepErrorOrder() {
+    List<Contact> contacts = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      contacts.add(contact(i, "Name" + i, i % 1000 == 0 ? null : "Surname", null, null));
+    }
+
+    ValidationReport report = contactValidator.validate(contacts);
+
+    assertEquals(
+        List.of(0, 1000, 2000, 3000, 4000),
+        report.getErrors().stream().map(ContactFieldError::getIndex).toList());
+  }
+
+  @Test
+  public void testRequireValidUpdateOnlyChecksProvidedFields() {
+    Contact update = new Contact();
+    update.setPin(1);
+    update.setSurname("Horvat");
+    contactValidator.requireValidUpdate(update);
+
+    update.setName("x".repeat(ContactValidator.MAX_NAME_LENGTH + 1));
+    assertThrows(
+        ContactValidationException.class, () -> contactValidator.requireValidUpdate(update));
+  }
+
+  @Test
+  public void testValidateAttribute() {
+    assertNull(contactValidator.validateAttribute("gender", "female"));
+    assertNull(contactValidator.validateAttribute("email", "ivana@example.com"));
+    assertEquals(
+        "Provided phone number is not valid", contactValidator.validateAttribute("phone", "x"));
+    assertEquals("Invalid attribute type", contactValidator.validateAttribute("age", "30"));
+  }
+
+  private static Contact contact(
+      Integer pin, String name, String surname, String phone, String email) {
+    Contact contact = new Contact();
+    contact.setPin(pin);
+    contact.setName(name);
+    contact.setSurname(surname);
+    if (phone != null) {
+      ContactPhones phones = new ContactPhones();
+      phones.add(phone);
+      contact.setPhones(phones);
+    }
+    if (email != null) {
+      ContactEmails emails = new ContactEmails();
+      emails.add(email);
+      contact.setEmails(emails);
+    }
+    return contact;
+  }
+}
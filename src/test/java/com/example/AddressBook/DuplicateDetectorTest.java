@@ -0,0 +1,103 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.duplicates.DuplicateDetector;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.ContactEmails;
+import com.example.AddressBook.model.ContactPhones;
+import com.example.AddressBook.model.DuplicatePair;
+import com.example.AddressBook.model.Gender;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class DuplicateDetectorTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(2);
+
+  @AfterEach
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void testSimilarNamesSharingAPhoneOrEmailAreRankedFirst() {
+    DuplicateDetector detector = new DuplicateDetector(0.7, 1000, 50);
+    detector.add(contact(1, "Ana", "Horvat", Gender.FEMALE, "+385 91 123-4567", "ana@example.com"));
+    detector.add(contact(2, "Ana", "Horvath", null, "385911234567", null));
+    detector.add(contact(3, "Leo", "Titlić", Gender.MALE, "091 555-0000", null));
+    detector.add(contact(4, "Kovač", "Marko", null, null, "Marko.Kovac@example.com"));
+    detector.add(contact(5, "Marko", "Kovac", Gender.MALE, null, "marko.kovac@example.com"));
+    detector.add(contact(6, "Ivan", "Horvat", Gender.MALE, null, null));
+    detector.add(contact(7, "Ivana", "Horvat", Gender.FEMALE, null, null));
+
+    List<DuplicatePair> duplicates = detector.detect(pool);
+
+    assertEquals(2, duplicates.size());
+    DuplicatePair swapped = duplicates.get(0);
+    assertEquals(4, swapped.getPin());
+    assertEquals(5, swapped.getDuplicatePin());
+    assertEquals(1.0, swapped.getScore());
+    assertTrue(swapped.isSameEmail());
+    assertFalse(swapped.isSamePhone());
+    DuplicatePair misspelled = duplicates.get(1);
+    assertEquals(1, misspelled.getPin());
+    assertEquals(2, misspelled.getDuplicatePin());
+    assertTrue(misspelled.getScore() > 0.9 && misspelled.getScore() < 1.0);
+    assertTrue(misspelled.isSamePhone());
+    assertFalse(misspelled.isSameEmail());
+    assertEquals(7, detector.getContactCount());
+    assertEquals(4, detector.getBlockCount());
+    assertTrue(detector.getPairsCompared() >= 3);
+  }
+
+  @Test
+  public void testOversizedBlockOnlyComparesNeighboursWithinWindow() {
+    DuplicateDetector bounded = new DuplicateDetector(0.5, 3, 1);
+    DuplicateDetector unbounded = new DuplicateDetector(0.5, 1000, 1);
+    for (String name : List.of("Anu", "Ana", "Ani", "Ano", "Ane")) {
+      int pin = bounded.getContactCount() + 1;
+      bounded.add(contact(pin, name, "Horvat", null, null, null));
+      unbounded.add(contact(pin, name, "Horvat", null, null, null));
+    }
+
+    List<DuplicatePair> neighbours = bounded.detect(pool);
+    List<DuplicatePair> all = unbounded.detect(pool);
+
+    assertEquals(4, bounded.getPairsCompared());
+    assertEquals(4, neighbours.size());
+    assertEquals(10, unbounded.getPairsCompared());
+    assertEquals(10, all.size());
+  }
+
+  @Test
+  public void testDifferentGendersAreNotReported() {
+    DuplicateDetector detector = new DuplicateDetector(0.7, 1000, 50);
+    detector.add(contact(1, "Ivan", "Horvat", Gender.MALE, "091 123 4567", null));
+    detector.add(contact(2, "Ivana", "Horvat", Gender.FEMALE, "0911234567", null));
+
+    assertTrue(detector.detect(pool).isEmpty());
+  }
+
+  private static Contact contact(
+      int pin, String name, String surname, Gender gender, String phone, String email) {
+    Contact contact = new Contact();
+    contact.setPin(pin);
+    contact.setName(name);
+    contact.setSurname(surname);
+    contact.setGender(gender);
+    ContactPhones phones = new ContactPhones();
+    if (phone != null) {
+      phones.add(phone);
+    }
+    contact.setPhones(phones);
+    ContactEmails emails = new ContactEmails();
+    if (email != null) {
+      emails.add(email);
+    }
+    contact.setEmails(emails);
+    return contact;
+  }
+}
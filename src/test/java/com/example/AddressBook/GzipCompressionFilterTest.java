@@ -0,0 +1,154 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.codec.GzipCompressionFilter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class GzipCompressionFilterTest {
+
+  private final GzipCompressionFilter filter =
+      new GzipCompressionFilter(true, List.of(MediaType.APPLICATION_JSON_VALUE), 64);
+
+  @Test
+  public void testLargeJsonIsCompressedAndETagWeakened() throws Exception {
+    String body = "[" + "{\"pin\":1001,\"name\":\"Name\"},".repeat(20) + "{}]";
+
+    MockHttpServletResponse response = filter(body, MediaType.APPLICATION_JSON_VALUE, "gzip");
+
+    assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("W/\"7\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    assertTrue(response.getContentAsByteArray().length < body.length());
+    try (GZIPInputStream in =
+        new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+      assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testSmallJsonIsSentAsIs() throws Exception {
+    MockHttpServletResponse response =
+        filter("{\"pin\":1001}", MediaType.APPLICATION_JSON_VALUE, "gzip, deflate");
+
+    assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("\"7\"", response.getHeader(HttpHeaders.ETAG));
+    assertEquals("{\"pin\":1001}", response.getContentAsString());
+    assertEquals(12, response.getContentLength());
+  }
+
+  @Test
+  public void testNoCompressionWithoutGzipInAcceptEncoding() throws Exception {
+    String body = "x".repeat(200);
+
+    assertNull(
+        filter(body, MediaType.APPLICATION_JSON_VALUE, null)
+            .getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertNull(
+        filter(body, MediaType.APPLICATION_JSON_VALUE, "gzip;q=0, br")
+            .getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertNull(
+        filter(body, MediaType.TEXT_PLAIN_VALUE, "gzip").getHeader(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  public void testNonBlockingWriteIsSentAsIs() throws Exception {
+    String body = "x".repeat(200);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts/findContacts");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+    List<WriteListener> listeners = new ArrayList<>();
+    HttpServletResponse response =
+        new HttpServletResponseWrapper(mockResponse) {
+          @Override
+          public ServletOutputStream getOutputStream() throws IOException {
+            ServletOutputStream out = mockResponse.getOutputStream();
+            return new ServletOutputStream() {
+              @Override
+              public boolean isReady() {
+                return true;
+              }
+
+              @Override
+              public void setWriteListener(WriteListener writeListener) {
+                listeners.add(writeListener);
+              }
+
+              @Override
+              public void write(int b) throws IOException {
+                out.write(b);
+              }
+            };
+          }
+        };
+    HttpServlet servlet =
+        new HttpServlet() {
+          @Override
+          protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+              throws IOException {
+            resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            resp.setContentLength(body.length());
+            ServletOutputStream out = resp.getOutputStream();
+            out.write('x');
+            out.setWriteListener(
+                new WriteListener() {
+                  @Override
+                  public void onWritePossible() throws IOException {
+                    out.write(body.substring(1).getBytes(StandardCharsets.UTF_8));
+                  }
+
+                  @Override
+                  public void onError(Throwable t) {}
+                });
+          }
+        };
+
+    filter.doFilter(request, response, new MockFilterChain(servlet));
+    listeners.getFirst().onWritePossible();
+
+    assertNull(mockResponse.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(body.length(), mockResponse.getContentLength());
+    assertEquals(body, mockResponse.getContentAsString());
+  }
+
+  private MockHttpServletResponse filter(String body, String contentType, String acceptEncoding)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts/findContacts");
+    if (acceptEncoding != null) {
+      request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    HttpServlet servlet =
+        new HttpServlet() {
+          @Override
+          protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+              throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            resp.setContentType(contentType);
+            resp.setHeader(HttpHeaders.ETAG, "\"7\"");
+            resp.setContentLength(bytes.length);
+            resp.getOutputStream().write(bytes);
+            resp.flushBuffer();
+          }
+        };
+    filter.doFilter(request, response, new MockFilterChain(servlet));
+    return response;
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.AddressBook;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.AddressBook.service.ContactService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private ContactService contactService;
+
+  @Test
+  public void testPrometheusEndpointExposesRequestAndExceptionMetrics() throws Exception {
+    when(contactService.getContactByPin(1, null, null))
+        .thenThrow(new EmptyResultDataAccessException(1));
+
+    mockMvc.perform(get("/api/contacts/findContact/1")).andExpect(status().isNotFound());
+
+    mockMvc
+        .perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+        .andExpect(
+            content()
+                .string(
+                    containsString(
+                        "addressbook_exceptions_total{exception=\"EmptyResultDataAccessException\"")))
+        .andExpect(
+            content()
+                .string(
+                    containsString(
+                        "addressbook_http_sql_statements_count{method=\"GET\",uri=\"/api/contacts/findContact/{pin}\"")));
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.repository.search.NGramContactIndex;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class NGramContactIndexTest {
+
+  private NGramContactIndex searchIndex;
+
+  @BeforeEach
+  public void setUp() {
+    searchIndex = new NGramContactIndex(true);
+    searchIndex.rebuild(
+        sink -> {
+          sink.put(1, "Ivana", "Horvat", Gender.FEMALE);
+          sink.put(2, "Ivan", "Horvatić", Gender.MALE);
+          sink.put(3, "Ana", "Kovač", Gender.FEMALE);
+          sink.put(4, "Leo", "Titlić", null);
+        });
+  }
+
+  @Test
+  public void testPatternWithoutWildcardsIsCaseInsensitiveEquality() {
+    assertTrue(searchIndex.isReady());
+    assertArrayEquals(new int[] {2}, searchIndex.search("ivan", null, null, 10));
+    assertArrayEquals(new int[] {1}, searchIndex.search(null, "HORVAT", null, 10));
+  }
+
+  @Test
+  public void testWildcardsAndGenderFilter() {
+    assertArrayEquals(new int[] {1, 2}, searchIndex.search("Iva%", null, null, 10));
+    assertArrayEquals(new int[] {1, 3}, searchIndex.search("%an%", null, Gender.FEMALE, 10));
+    assertArrayEquals(new int[] {4}, searchIndex.search("L_o", null, null, 10));
+    assertArrayEquals(new int[] {1, 3}, searchIndex.search(null, null, Gender.FEMALE, 10));
+    assertArrayEquals(new int[] {}, searchIndex.search("100\\%", null, null, 10));
+  }
+
+  @Test
+  public void testTooManyResultsReturnsNull() {
+    assertNull(searchIndex.search("%", null, null, 3));
+  }
+
+  @Test
+  public void testWritesKeepIndexInSync() {
+    searchIndex.updateAttribute(3, "name", "Anamarija");
+    searchIndex.remove(1);
+    searchIndex.put(5, "Ivona", "Horvat", Gender.FEMALE);
+
+    assertArrayEquals(new int[] {3}, searchIndex.search("anamarija", null, null, 10));
+    assertArrayEquals(new int[] {}, searchIndex.search("Ana", null, null, 10));
+    assertArrayEquals(new int[] {5}, searchIndex.search(null, "horvat", null, 10));
+  }
+
+  @Test
+  public void testWritesDuringRebuildAreReplayed() {
+    searchIndex.rebuild(
+        sink -> {
+          sink.put(1, "Ivana", "Horvat", Gender.FEMALE);
+          searchIndex.remove(1);
+          searchIndex.put(6, "Mia", "Babić", Gender.FEMALE);
+        });
+
+    assertArrayEquals(new int[] {}, searchIndex.search("Ivana", null, null, 10));
+    assertArrayEquals(new int[] {6}, searchIndex.search("mia", null, null, 10));
+  }
+
+  @Test
+  public void testWriteBetweenLoaderAndSwapIsKept() throws Exception {
+    // A fair lock hands it to the waiting writer before the rebuild can take it again.
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    ReflectionTestUtils.setField(searchIndex, "lock", lock);
+    CountDownLatch loaded = new CountDownLatch(1);
+    CountDownLatch locked = new CountDownLatch(1);
+    Thread rebuild =
+        Thread.ofPlatform()
+            .start(
+                () ->
+                    searchIndex.rebuild(
+                        sink -> {
+                          sink.put(1, "Ivana", "Horvat", null);
+                          loaded.countDown();
+                          awaitUninterruptibly(locked);
+                        }));
+    // Holding the read lock parks the rebuild right after its loader has returned.
+    loaded.await();
+    lock.readLock().lock();
+    locked.countDown();
+    awaitQueued(lock, rebuild);
+    Thread writer = Thread.ofPlatform().start(() -> searchIndex.put(7, "Mia", "Babić", null));
+    awaitQueued(lock, writer);
+    lock.readLock().unlock();
+    rebuild.join();
+    writer.join();
+
+    assertArrayEquals(new int[] {7}, searchIndex.search("mia", null, null, 10));
+    assertArrayEquals(new int[] {1}, searchIndex.search("ivana", null, null, 10));
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void awaitQueued(ReentrantReadWriteLock lock, Thread thread)
+      throws InterruptedException {
+    while (!lock.hasQueuedThread(thread)) {
+      Thread.sleep(1);
+    }
+  }
+}
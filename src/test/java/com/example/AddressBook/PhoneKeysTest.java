@@ -0,0 +1,33 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.repository.PhoneKeys;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PhoneKeysTest {
+
+  @Test
+  public void testFormatsOfTheSameNumberShareAKey() {
+    assertEquals(115551234567L, PhoneKeys.of("+1 (555) 123-4567"));
+    assertEquals(PhoneKeys.of("+1 (555) 123-4567"), PhoneKeys.of("15551234567"));
+    assertEquals(PhoneKeys.of("+385 1 456-7890"), PhoneKeys.of("38514567890"));
+  }
+
+  @Test
+  public void testLeadingZerosKeepNumbersApart() {
+    assertEquals(10997899621L, PhoneKeys.of("0997899621"));
+    assertNotEquals(PhoneKeys.of("0997899621"), PhoneKeys.of("997899621"));
+    assertNotEquals(PhoneKeys.of("00385"), PhoneKeys.of("0385"));
+  }
+
+  @Test
+  public void testValuesWithoutKey() {
+    assertNull(PhoneKeys.of(null));
+    assertNull(PhoneKeys.of("not a phone"));
+    assertEquals(1999999999999999999L, PhoneKeys.of("999999999999999999"));
+    assertNull(PhoneKeys.of("9999999999999999999"));
+    assertArrayEquals(new Long[] {1123L, null}, PhoneKeys.ofAll(List.of("1-2-3", "")));
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.AddressBook;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.controller.reactive.ReactiveContactHandler;
+import com.example.AddressBook.controller.reactive.ReactiveContactRoutes;
+import com.example.AddressBook.model.Contact;
+import com.example.AddressBook.model.Gender;
+import com.example.AddressBook.repository.reactive.ReactiveContactRepository;
+import com.example.AddressBook.validation.ContactValidator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactiveContactRoutesTest {
+
+  private ReactiveContactRepository contactRepository;
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  public void setUp() {
+    contactRepository = mock(ReactiveContactRepository.class);
+    webTestClient =
+        WebTestClient.bindToRouterFunction(
+                ReactiveContactRoutes.routes(
+                    new ReactiveContactHandler(contactRepository, new ContactValidator())))
+            .build();
+  }
+
+  @Test
+  public void testStreamContactsAsNdjson() {
+    when(contactRepository.searchContactsByParameter("Ana", null, Gender.FEMALE))
+        .thenReturn(Flux.just(contact(1, "Ana"), contact(2, "Anamarija")));
+
+    webTestClient
+        .get()
+        .uri("/api/contacts/streamContacts?name=Ana&gender=FEMALE")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBodyList(Contact.class)
+        .hasSize(2);
+  }
+
+  @Test
+  public void testFindContactsByPinsListsMissingPins() {
+    when(contactRepository.getContactsByPins(new Integer[] {2, 5, 1}))
+        .thenReturn(Flux.just(contact(1, "Ana"), contact(2, "Iva")));
+
+    webTestClient
+        .post()
+        .uri("/api/contacts/findContactsByPins")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(List.of(2, 5, 1, 2))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.contacts[0].pin")
+        .isEqualTo(2)
+        .jsonPath("$.contacts[1].pin")
+        .isEqualTo(1)
+        .jsonPath("$.missingPins[0]")
+        .isEqualTo(5);
+  }
+
+  @Test
+  public void testFindContactNotFound() {
+    when(contactRepository.getContactByPin(7)).thenReturn(Mono.empty());
+
+    webTestClient
+        .get()
+        .uri("/api/contacts/findContact/7")
+        .exchange()
+        .expectStatus()
+        .isNotFound()
+        .expectBody(String.class)
+        .isEqualTo("No records found for the given criteria.");
+  }
+
+  @Test
+  public void testCreateContactsRejectsInvalidContactBeforeDatabase() {
+    Contact invalid = contact(1, "Ana");
+    invalid.setSurname(null);
+
+    webTestClient
+        .post()
+        .uri("/api/contacts/createContactFromJson")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(List.of(invalid))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.errors[0].field")
+        .isEqualTo("surname");
+
+    verify(contactRepository, never()).batchContactCreation(any());
+  }
+
+  @Test
+  public void testUpdateAttributeReportsMissingValueFromAffectedRows() {
+    when(contactRepository.updateContactAttribute(1, "email", "new@example.com", "old@example.com"))
+        .thenReturn(Mono.just(0L));
+
+    webTestClient
+        .put()
+        .uri(
+            "/api/contacts/updateContactAttribute?pin=1&attribute=email"
+                + "&oldValue=old@example.com&newValue=new@example.com")
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  private static Contact contact(Integer pin, String name) {
+    Contact contact = new Contact();
+    contact.setPin(pin);
+    contact.setName(name);
+    contact.setSurname("Horvat");
+    return contact;
+  }
+}
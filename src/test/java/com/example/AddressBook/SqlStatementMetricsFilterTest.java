@@ -0,0 +1,107 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.metrics.SqlStatementCallableInterceptor;
+import com.example.AddressBook.metrics.SqlStatementMetricsFilter;
+import com.example.AddressBook.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class SqlStatementMetricsFilterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(meterRegistry);
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+    jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(dataSource));
+  }
+
+  @Test
+  public void testStreamedStatementsAreRecordedWhenTheRequestCompletes() throws Exception {
+    MockHttpServletRequest request = asyncRequest("/api/contacts/stream");
+
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(startAsync(1)));
+    assertNull(summary());
+
+    // The streaming task runs on another thread once the filter has returned.
+    Thread streaming =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  ServletWebRequest webRequest = new ServletWebRequest(request);
+                  SqlStatementCallableInterceptor interceptor =
+                      new SqlStatementCallableInterceptor();
+                  Callable<Void> task = () -> null;
+                  interceptor.preProcess(webRequest, task);
+                  update(2);
+                  interceptor.postProcess(webRequest, task, null);
+                });
+    streaming.join();
+    request.getAsyncContext().complete();
+
+    assertEquals(1, summary().count());
+    assertEquals(3, summary().totalAmount());
+  }
+
+  @Test
+  public void testAsyncRequestWithoutCountedTaskIsNotRecorded() throws Exception {
+    MockHttpServletRequest request = asyncRequest("/api/contacts/changes");
+
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(startAsync(1)));
+    request.getAsyncContext().complete();
+
+    assertNull(summary());
+  }
+
+  private MockHttpServletRequest asyncRequest(String uri) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    request.setAsyncSupported(true);
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+    return request;
+  }
+
+  private HttpServlet startAsync(int statements) {
+    return new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        update(statements);
+        req.startAsync();
+      }
+    };
+  }
+
+  private void update(int statements) {
+    for (int i = 0; i < statements; i++) {
+      jdbcTemplate.update("UPDATE contacts SET version = version WHERE pin = ?", i);
+    }
+  }
+
+  private DistributionSummary summary() {
+    return meterRegistry.find("addressbook.http.sql.statements").summary();
+  }
+}
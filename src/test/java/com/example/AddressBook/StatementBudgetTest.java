@@ -0,0 +1,409 @@
+package com.example.AddressBook;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.AddressBook.codec.VaryByAcceptAdvice;
+import com.example.AddressBook.controller.ContactController;
+import com.example.AddressBook.exceptions.GlobalExceptionHandler;
+import com.example.AddressBook.metrics.SqlStatementCounter;
+import com.example.AddressBook.metrics.StatementCountingDataSource;
+import com.example.AddressBook.repository.ContactPartitions;
+import com.example.AddressBook.repository.JdbcContactRepository;
+import com.example.AddressBook.repository.cache.CachingContactRepository;
+import com.example.AddressBook.repository.cache.ContactCache;
+import com.example.AddressBook.repository.search.NGramContactIndex;
+import com.example.AddressBook.service.ContactService;
+import com.example.AddressBook.validation.ContactValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Round-trip budget per endpoint: the full controller, service and repository stack runs against a
+ * mocked driver and every executed statement is counted.
+ */
+public class StatementBudgetTest {
+
+  private PreparedStatement statement;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    statement = mock(PreparedStatement.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.supportsBatchUpdates()).thenReturn(true);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeUpdate()).thenReturn(1);
+    when(statement.executeBatch()).thenReturn(new int[] {1, 1});
+
+    JdbcContactRepository jdbcRepository = new JdbcContactRepository();
+    ReflectionTestUtils.setField(
+        jdbcRepository,
+        "jdbcTemplate",
+        new JdbcTemplate(new StatementCountingDataSource(dataSource)));
+    ReflectionTestUtils.setField(jdbcRepository, "searchIndex", new NGramContactIndex(false));
+    ReflectionTestUtils.setField(jdbcRepository, "partitions", new ContactPartitions(null, 1));
+    ContactCache contactCache = new ContactCache(100, Duration.ofMinutes(10));
+    ContactService contactService =
+        new ContactService(
+            new CachingContactRepository(jdbcRepository, contactCache),
+            null,
+            contactCache,
+            new ContactValidator(),
+            new ObjectMapper(),
+            500);
+    mockMvc =
+        MockMvcBuilders.standaloneSetup(
+                new ContactController(contactService, null, null, null, null))
+            .setControllerAdvice(
+                new GlobalExceptionHandler(new SimpleMeterRegistry()), new VaryByAcceptAdvice())
+            .build();
+  }
+
+  @Test
+  public void testUpdateEmailIsOneStatement() throws Exception {
+    assertStatements(
+        1,
+        put("/api/contacts/updateContactAttribute")
+            .param("pin", "1")
+            .param("attribute", "email")
+            .param("oldValue", "old@example.com")
+            .param("newValue", "new@example.com"),
+        status().isOk());
+  }
+
+  @Test
+  public void testAddPhoneIsOneStatement() throws Exception {
+    assertStatements(
+        1,
+        put("/api/contacts/updateContactAttribute")
+            .param("pin", "1")
+            .param("attribute", "phone")
+            .param("newValue", "+385 1 456-7890"),
+        status().isOk());
+  }
+
+  @Test
+  public void testUpdateNameOfMissingContactIsOneStatement() throws Exception {
+    when(statement.executeUpdate()).thenReturn(0);
+
+    assertStatements(
+        1,
+        put("/api/contacts/updateContactAttribute")
+            .param("pin", "1")
+            .param("attribute", "name")
+            .param("newValue", "Ana"),
+        status().isNotFound());
+  }
+
+  @Test
+  public void testDeleteEmailAndPhoneAreOneStatementEach() throws Exception {
+    assertStatements(
+        1,
+        delete("/api/contacts/deleteEmail").param("pin", "1").param("email", "a@example.com"),
+        status().isOk());
+
+    when(statement.executeUpdate()).thenReturn(0);
+
+    assertStatements(
+        1,
+        delete("/api/contacts/deletePhone").param("pin", "1").param("phone", "123456"),
+        status().isNotFound());
+  }
+
+  @Test
+  public void testFindContactIsOneStatementThenCached() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getInt("pin")).thenReturn(1);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(1, get("/api/contacts/findContact/1"), status().isOk());
+    assertStatements(0, get("/api/contacts/findContact/1"), status().isOk());
+  }
+
+  @Test
+  public void testNotModifiedCachedContactStillReadsTheVersion() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getInt("pin")).thenReturn(1);
+    when(resultSet.getLong("version")).thenReturn(7L);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    assertStatements(
+        1, get("/api/contacts/findContact/1"), status().isOk(), header().string("ETag", "\"7\""));
+
+    mockVersionQuery(7L);
+    assertStatements(
+        1,
+        get("/api/contacts/findContact/1").header("If-None-Match", "\"7\""),
+        status().isNotModified());
+  }
+
+  @Test
+  public void testContactChangedElsewhereIsReloadedDespiteTheCache() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getInt("pin")).thenReturn(1);
+    when(resultSet.getLong("version")).thenReturn(7L, 8L);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    assertStatements(
+        1, get("/api/contacts/findContact/1"), status().isOk(), header().string("ETag", "\"7\""));
+
+    // Another instance updated the contact: this cache still holds version 7.
+    ResultSet versionResultSet = mock(ResultSet.class);
+    ResultSetMetaData versionMetaData = mock(ResultSetMetaData.class);
+    when(versionResultSet.getMetaData()).thenReturn(versionMetaData);
+    when(versionMetaData.getColumnCount()).thenReturn(1);
+    when(versionResultSet.next()).thenReturn(true, false);
+    when(versionResultSet.getLong(1)).thenReturn(8L);
+    when(resultSet.next()).thenReturn(true, false);
+    when(statement.executeQuery()).thenReturn(versionResultSet, resultSet);
+    assertStatements(
+        2,
+        get("/api/contacts/findContact/1").header("If-None-Match", "\"7\""),
+        status().isOk(),
+        header().string("ETag", "\"8\""));
+  }
+
+  @Test
+  public void testBinaryRepresentationHasItsOwnETag() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getInt("pin")).thenReturn(1);
+    when(resultSet.getLong("version")).thenReturn(7L);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(
+        1,
+        get("/api/contacts/findContact/1").accept(MediaType.APPLICATION_CBOR),
+        status().isOk(),
+        content().contentType(MediaType.APPLICATION_CBOR),
+        header().string("ETag", "\"7+cbor\""),
+        header().stringValues("Vary", hasItem("Accept")));
+    mockVersionQuery(7L);
+    assertStatements(
+        1,
+        get("/api/contacts/findContact/1")
+            .accept(MediaType.APPLICATION_CBOR)
+            .header("If-None-Match", "\"7\""),
+        status().isOk(),
+        header().string("ETag", "\"7+cbor\""));
+    mockVersionQuery(7L);
+    assertStatements(
+        1,
+        get("/api/contacts/findContact/1")
+            .accept(MediaType.APPLICATION_CBOR)
+            .header("If-None-Match", "\"7+cbor\""),
+        status().isNotModified(),
+        header().string("ETag", "\"7+cbor\""),
+        header().stringValues("Vary", hasItem("Accept")));
+  }
+
+  @Test
+  public void testJsonBodyVariesByAccept() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getInt("pin")).thenReturn(1);
+    when(resultSet.getLong("version")).thenReturn(7L);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(
+        1,
+        get("/api/contacts/findContact/1"),
+        status().isOk(),
+        header().string("ETag", "\"7\""),
+        header().stringValues("Vary", hasItem("Accept")));
+  }
+
+  @Test
+  public void testNotModifiedContactReadsOnlyTheVersion() throws Exception {
+    mockVersionQuery(7L);
+
+    assertStatements(
+        1,
+        get("/api/contacts/findContact/1").header("If-None-Match", "W/\"3\", \"7\""),
+        status().isNotModified(),
+        header().string("ETag", "\"7\""));
+  }
+
+  @Test
+  public void testNotModifiedListIsOneAggregateStatement() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong("count")).thenReturn(2L);
+    when(resultSet.getLong("max_version")).thenReturn(9L);
+    when(resultSet.getLong("version_sum")).thenReturn(14L);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(
+        1,
+        get("/api/contacts/findContacts")
+            .param("name", "Ana")
+            .header("If-None-Match", "\"2-9-14\""),
+        status().isNotModified());
+  }
+
+  @Test
+  public void testStaleIfMatchOnAttributeUpdateIsPreconditionFailed() throws Exception {
+    when(statement.executeUpdate()).thenReturn(0);
+    mockVersionQuery(8L);
+
+    assertStatements(
+        2,
+        put("/api/contacts/updateContactAttribute")
+            .param("pin", "1")
+            .param("attribute", "phone")
+            .param("oldValue", "123456")
+            .param("newValue", "654321")
+            .header("If-Match", "\"7\""),
+        status().isPreconditionFailed());
+  }
+
+  @Test
+  public void testBatchLookupIsOneStatementThenCached() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getInt("pin")).thenReturn(1, 2);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(
+        1,
+        post("/api/contacts/findContactsByPins")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[2,3,1,2]"),
+        status().isOk(),
+        jsonPath("$.contacts[*].pin").value(contains(2, 1)),
+        jsonPath("$.missingPins").value(contains(3)));
+    assertStatements(
+        0,
+        post("/api/contacts/findContactsByPins")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[1,2]"),
+        status().isOk(),
+        jsonPath("$.contacts[*].pin").value(contains(1, 2)));
+  }
+
+  @Test
+  public void testReverseLookupsAreOneStatementEach() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false, true, false);
+    when(resultSet.getInt("pin")).thenReturn(1, 2);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(
+        1,
+        get("/api/contacts/findByPhone").param("phone", "+385 1 456-7890"),
+        status().isOk(),
+        jsonPath("$[*].pin").value(contains(1)));
+    assertStatements(
+        1,
+        get("/api/contacts/findByEmail").param("email", "Ana@Example.com"),
+        status().isOk(),
+        jsonPath("$[*].pin").value(contains(2)));
+  }
+
+  @Test
+  public void testCreateContactWithPhonesAndEmailsIsThreeStatements() throws Exception {
+    assertStatements(
+        3,
+        post("/api/contacts/createContactFromJson")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(
+                "[{\"pin\":1,\"name\":\"Ana\",\"surname\":\"Horvat\",\"gender\":\"FEMALE\","
+                    + "\"phones\":[\"123456\",\"654321\"],"
+                    + "\"emails\":[\"a@example.com\",\"b@example.com\"]}]"),
+        status().isOk());
+  }
+
+  @Test
+  public void testBulkDeleteIsOneStatementPerChunk() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    ResultSetMetaData resultSetMetaData = mock(ResultSetMetaData.class);
+    when(resultSet.getMetaData()).thenReturn(resultSetMetaData);
+    when(resultSetMetaData.getColumnCount()).thenReturn(1);
+    when(resultSet.next()).thenReturn(true, false, true, false, true, false);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    String pins =
+        IntStream.range(0, 2500).mapToObj(Integer::toString).collect(Collectors.joining(","));
+
+    assertStatements(
+        3,
+        post("/api/contacts/deleteContacts")
+            .param("chunkSize", "1000")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[" + pins + ",1,null]"),
+        status().isOk(),
+        jsonPath("$.requested").value(2500),
+        jsonPath("$.deleted").value(3),
+        jsonPath("$.missing").value(2497),
+        jsonPath("$.invalid").value(1));
+  }
+
+  @Test
+  public void testStreamedBulkDeleteSkipsInvalidLines() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    ResultSetMetaData resultSetMetaData = mock(ResultSetMetaData.class);
+    when(resultSet.getMetaData()).thenReturn(resultSetMetaData);
+    when(resultSetMetaData.getColumnCount()).thenReturn(1);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    assertStatements(
+        2,
+        post("/api/contacts/deleteContacts")
+            .param("chunkSize", "2")
+            .contentType(MediaType.TEXT_PLAIN)
+            .content("1\n2\n\nabc\n3\n"),
+        status().isOk(),
+        jsonPath("$.requested").value(3),
+        jsonPath("$.missing").value(3),
+        jsonPath("$.invalid").value(1));
+  }
+
+  private void mockVersionQuery(long version) throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    ResultSetMetaData resultSetMetaData = mock(ResultSetMetaData.class);
+    when(resultSet.getMetaData()).thenReturn(resultSetMetaData);
+    when(resultSetMetaData.getColumnCount()).thenReturn(1);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong(1)).thenReturn(version);
+    when(statement.executeQuery()).thenReturn(resultSet);
+  }
+
+  private void assertStatements(
+      int expected, MockHttpServletRequestBuilder request, ResultMatcher... matchers)
+      throws Exception {
+    SqlStatementCounter.start();
+    try {
+      mockMvc.perform(request).andExpectAll(matchers);
+    } finally {
+      assertEquals(expected, SqlStatementCounter.stop(), "SQL statements executed");
+    }
+  }
+}
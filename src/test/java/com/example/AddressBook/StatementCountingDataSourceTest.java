@@ -0,0 +1,53 @@
+package com.example.AddressBook;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.metrics.SqlStatementCounter;
+import com.example.AddressBook.metrics.StatementCountingDataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+
+public class StatementCountingDataSourceTest {
+
+  @Test
+  public void testCountsExecutedStatements() throws SQLException {
+    DataSource target = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(target.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+    SqlStatementCounter.start();
+    try (Connection counted = new StatementCountingDataSource(target).getConnection()) {
+      PreparedStatement prepared = counted.prepareStatement("SELECT 1");
+      prepared.setInt(1, 1);
+      prepared.executeQuery();
+      prepared.addBatch();
+      prepared.addBatch();
+      prepared.executeBatch();
+    }
+
+    assertEquals(2, SqlStatementCounter.stop());
+    verify(statement).executeQuery();
+    verify(connection).close();
+  }
+
+  @Test
+  public void testUnwrapReachesDriverConnection() throws SQLException {
+    DataSource target = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    when(target.getConnection()).thenReturn(connection);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+    Connection counted = new StatementCountingDataSource(target).getConnection();
+
+    assertSame(pgConnection, counted.unwrap(PGConnection.class));
+  }
+}